@@ -0,0 +1,79 @@
+package com.end.lms.bench;
+
+import com.end.lms.AttemptJournal;
+import com.end.lms.Exam;
+import com.end.lms.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttemptJournalBenchmark {
+    private static final String[] CHOICES = { "A", "B", "C", "D" };
+
+    @Param({ "50", "300" })
+    int questionCount;
+
+    private Path dataDir;
+    private ScheduledExecutorService scheduler;
+    private AttemptJournal journal;
+    private int click;
+
+    @Setup
+    public void setUp() throws IOException {
+        Exam exam = new Exam("E001", "Benchmark");
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question("Q" + (i + 1), "Question " + i, 20, "MULTIPLE_CHOICE");
+            for (String choice : CHOICES) {
+                question.addOption(choice + ". option");
+            }
+            question.setCorrectAnswer(CHOICES[i % CHOICES.length]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+
+        dataDir = Files.createTempDirectory("lms-journal-bench");
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        journal = AttemptJournal.open(dataDir.resolve("S001.journal"), "E001", exam.getAnswerKey(), scheduler);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.discard();
+        scheduler.shutdown();
+        Files.deleteIfExists(dataDir);
+    }
+
+    @Benchmark
+    public void onSelect() {
+        int next = click++;
+        journal.onSelect(next % questionCount, next % CHOICES.length);
+    }
+
+    @Benchmark
+    public void selectOnSheet() {
+        int next = click++;
+        journal.getSheet().select(next % questionCount, next % CHOICES.length);
+    }
+}
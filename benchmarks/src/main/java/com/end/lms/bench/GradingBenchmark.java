@@ -0,0 +1,64 @@
+package com.end.lms.bench;
+
+import com.end.lms.Answer;
+import com.end.lms.Exam;
+import com.end.lms.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+    private static final String[] CHOICES = { "A", "B", "C" };
+
+    @Param({ "10", "100", "300" })
+    int questionCount;
+
+    @Param({ "0.5", "1.0" })
+    double answeredFraction;
+
+    private Exam exam;
+    private List<Answer> answers;
+
+    @Setup
+    public void setUp() {
+        exam = new Exam("E001", "Benchmark");
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question("Q" + (i + 1), "Question " + i, 20, "MULTIPLE_CHOICE");
+            for (String choice : CHOICES) {
+                question.addOption(choice + ". option");
+            }
+            question.setCorrectAnswer(CHOICES[i % CHOICES.length]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+
+        int answerCount = (int) (questionCount * answeredFraction);
+        answers = new ArrayList<>(answerCount);
+        for (int i = 0; i < answerCount; i++) {
+            answers.add(new Answer("S001", "E001", "Q" + (i + 1), CHOICES[(i * 7) % CHOICES.length]));
+        }
+    }
+
+    @Benchmark
+    public float calculateScore() {
+        return exam.calculateScore(answers);
+    }
+}
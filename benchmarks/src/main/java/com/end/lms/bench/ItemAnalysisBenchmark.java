@@ -0,0 +1,92 @@
+package com.end.lms.bench;
+
+import com.end.lms.Answer;
+import com.end.lms.Exam;
+import com.end.lms.ItemAnalysis;
+import com.end.lms.Question;
+import com.end.lms.SubmissionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ItemAnalysisBenchmark {
+    private static final String[] CHOICES = { "A", "B", "C", "D" };
+
+    @Param({ "1000", "100000" })
+    int studentCount;
+
+    @Param({ "50", "200" })
+    int questionCount;
+
+    private SubmissionStore store;
+    private List<Answer> resubmission;
+
+    @Setup
+    public void setUp() {
+        Exam exam = new Exam("E001", "Benchmark");
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question("Q" + (i + 1), "Question " + i, 1 + i % 3, "MULTIPLE_CHOICE");
+            for (String choice : CHOICES) {
+                question.addOption(choice + ". option");
+            }
+            question.setCorrectAnswer(CHOICES[i % CHOICES.length]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+
+        store = new SubmissionStore(examId -> exam.getAnswerKey());
+        Random random = new Random(1);
+        for (int s = 0; s < studentCount; s++) {
+            store.put("S" + s, "E001", answers("S" + s, random));
+        }
+        resubmission = answers("S0", random);
+    }
+
+    private List<Answer> answers(String studentId, Random random) {
+        List<Answer> answers = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            answers.add(new Answer(studentId, "E001", "Q" + (i + 1), CHOICES[random.nextInt(CHOICES.length)]));
+        }
+        return answers;
+    }
+
+    @Benchmark
+    public ItemAnalysis analyzeItems() {
+        return store.analyzeItems("E001");
+    }
+
+    @Benchmark
+    @Group("analysisWithSubmits")
+    @GroupThreads(1)
+    public ItemAnalysis analyzeWhileSubmitting() {
+        return store.analyzeItems("E001");
+    }
+
+    @Benchmark
+    @Group("analysisWithSubmits")
+    @GroupThreads(1)
+    public void resubmitDuringAnalysis() {
+        store.put("S0", "E001", resubmission);
+    }
+}
@@ -0,0 +1,101 @@
+package com.end.lms.bench;
+
+import com.end.lms.ExamKeyLogger;
+import com.end.lms.KeyAction;
+import com.end.lms.KeyActionRules;
+import com.end.lms.ui.KeyEventActions;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyLoggerBenchmark {
+    private static final int BATCH = 100_000;
+    private static final int MAX_THREADS = 4;
+
+    private static final KeyEvent TYPING = new KeyEvent(KeyEvent.KEY_PRESSED, "a", "a", KeyCode.A,
+            false, false, false, false);
+    private static final KeyEvent COPY = new KeyEvent(KeyEvent.KEY_PRESSED, "c", "c", KeyCode.C,
+            false, true, false, false);
+    private static final KeyEvent ALT_TAB = new KeyEvent(KeyEvent.KEY_PRESSED, "", "", KeyCode.TAB,
+            false, false, true, false);
+
+    private final KeyActionRules rules = KeyActionRules.defaults();
+    private ExamKeyLogger logger;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        logger = new ExamKeyLogger(BATCH * MAX_THREADS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNothingDropped() {
+        if (logger.getDroppedCount() > 0)
+            throw new IllegalStateException("Logger dropped " + logger.getDroppedCount() + " events");
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        boolean flip;
+    }
+
+    private void logKeyEvent(KeyEvent event) {
+        KeyAction action = KeyEventActions.classify(rules, event);
+        if (action != null) {
+            logger.logKeyAction(action);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void typingSingleProducer() {
+        logKeyEvent(TYPING);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 10, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @Threads(1)
+    public void suspiciousSingleProducer(Producer producer) {
+        producer.flip = !producer.flip;
+        logKeyEvent(producer.flip ? COPY : ALT_TAB);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 10, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @Threads(MAX_THREADS)
+    public void suspiciousConcurrentProducers(Producer producer) {
+        producer.flip = !producer.flip;
+        logKeyEvent(producer.flip ? COPY : ALT_TAB);
+    }
+
+    @Benchmark
+    @Threads(MAX_THREADS)
+    public void windowUnfocusedConcurrentProducers() {
+        logger.logWindowUnfocused();
+    }
+}
@@ -0,0 +1,105 @@
+package com.end.lms.bench;
+
+import com.end.lms.Answer;
+import com.end.lms.Exam;
+import com.end.lms.ExamService;
+import com.end.lms.PasswordHash;
+import com.end.lms.Question;
+import com.end.lms.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    @Param({ "10", "1000" })
+    int examCount;
+
+    @Param({ "100", "5000" })
+    int studentCount;
+
+    private Path dataDir;
+    private ExamService service;
+    private Exam targetExam;
+    private String targetTitle;
+    private Student submittedStudent;
+    private Student newStudent;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("lms-bench");
+        service = ExamService.open(dataDir);
+        for (int e = 0; e < examCount; e++) {
+            Exam exam = new Exam("E" + e, "Exam " + e);
+            Question question = new Question("Q1", "Question", 20, "MULTIPLE_CHOICE");
+            question.setCorrectAnswer("A");
+            exam.addQuestion(question);
+            exam.publish();
+            service.addExam(exam);
+        }
+        targetExam = service.getExam("E" + (examCount - 1));
+        targetTitle = targetExam.getTitle();
+
+        String passwordHash = PasswordHash.hash("pass");
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int s = 0; s < studentCount; s++) {
+            Student student = Student.withPasswordHash("S" + s, "student" + s, passwordHash);
+            List<Answer> answers = new ArrayList<>();
+            answers.add(new Answer(student.getUserId(), targetExam.getExamId(), "Q1", "A"));
+            pending.add(service.submit(student, targetExam, answers));
+        }
+        pending.forEach(CompletableFuture::join);
+
+        submittedStudent = Student.withPasswordHash("S0", "student0", passwordHash);
+        newStudent = Student.withPasswordHash("S-new", "new", passwordHash);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.close();
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isStudentEligibleSubmitted() {
+        return service.isEligible(submittedStudent, targetExam);
+    }
+
+    @Benchmark
+    public boolean isStudentEligibleNew() {
+        return service.isEligible(newStudent, targetExam);
+    }
+
+    @Benchmark
+    public Exam findExamByTitle() {
+        return service.findExamByTitle(targetTitle);
+    }
+}
@@ -0,0 +1,91 @@
+package com.end.lms.bench;
+
+import com.end.lms.Answer;
+import com.end.lms.Exam;
+import com.end.lms.GradingEngine;
+import com.end.lms.Question;
+import com.end.lms.SubmissionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SubmissionGradingBenchmark {
+    private static final String[] CHOICES = { "A", "B", "C", "D" };
+
+    @Param({ "20000" })
+    int studentCount;
+
+    @Param({ "100" })
+    int questionCount;
+
+    @Param({ "1", "4" })
+    int parallelism;
+
+    private Exam exam;
+    private SubmissionStore store;
+    private ForkJoinPool pool;
+    private GradingEngine engine;
+
+    @Setup
+    public void setUp() {
+        exam = new Exam("E001", "Benchmark");
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question("Q" + (i + 1), "Question " + i, 1 + i % 3, "MULTIPLE_CHOICE");
+            for (String choice : CHOICES) {
+                question.addOption(choice + ". option");
+            }
+            question.setCorrectAnswer(CHOICES[i % CHOICES.length]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+
+        store = new SubmissionStore(examId -> exam.getAnswerKey());
+        Random random = new Random(1);
+        for (int s = 0; s < studentCount; s++) {
+            List<Answer> answers = new ArrayList<>(questionCount);
+            for (int i = 0; i < questionCount; i++) {
+                answers.add(new Answer("S" + s, "E001", "Q" + (i + 1), CHOICES[random.nextInt(CHOICES.length)]));
+            }
+            store.put("S" + s, "E001", answers);
+        }
+
+        pool = new ForkJoinPool(parallelism);
+        engine = new GradingEngine(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public GradingEngine.GradingResult gradeStore() {
+        return engine.gradeAll(store.grading("E001"), null).getResult().join();
+    }
+
+    @Benchmark
+    public GradingEngine.GradingResult gradeSubmissionViews() {
+        return engine.gradeAll(exam, store.forExam("E001"), null).getResult().join();
+    }
+}
@@ -1,21 +1,25 @@
 package com.end.lms;
 
 public class Answer {
-    private String examId;
+    private int examId;
     private String content;
-    private String questionId;
+    private int questionId;
     private boolean isGraded;
     private float totalScore;
 
     public Answer(String studentId, String examId, String questionId, String content) {
-        this.questionId = questionId;
+        this.questionId = Symbols.intern(questionId);
         this.content = content;
         this.isGraded = false;
         this.totalScore = 0.0f;
-        this.examId = examId;
+        this.examId = Symbols.intern(examId);
     }
 
     public String getQuestionId() {
+        return Symbols.name(questionId);
+    }
+
+    public int getQuestionSymbol() {
         return questionId;
     }
 
@@ -50,7 +54,7 @@ public class Answer {
     }
 
     public String getExamId() {
-        return examId;
+        return Symbols.name(examId);
     }
 
 }
@@ -0,0 +1,537 @@
+package com.end.lms;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class AnswerColumns {
+    private static final int INITIAL_ROWS = 16;
+    private static final int INITIAL_ANSWERS = 256;
+    private static final short NO_SLOT = -1;
+    private static final byte NO_CHOICE = 0;
+
+    private final String examId;
+    private final Supplier<AnswerKey> answerKey;
+    private AnswerKey key;
+
+    private short[] slots;
+    private byte[] choices;
+    private int answerCount;
+    private int unusedAnswers;
+    private Map<Integer, String[]> overflow;
+
+    private int[] studentIds;
+    private int[] starts;
+    private int[] lengths;
+    private float[] scores;
+    private boolean[] graded;
+    private int rowCount;
+    private final Symbols.Index rows;
+    private GradeStatistics statistics;
+
+    public AnswerColumns(String examId, Supplier<AnswerKey> answerKey) {
+        this.examId = examId;
+        this.answerKey = answerKey;
+        this.key = answerKey.get();
+        this.slots = new short[INITIAL_ANSWERS];
+        this.choices = new byte[INITIAL_ANSWERS];
+        this.overflow = new HashMap<>();
+        this.studentIds = new int[INITIAL_ROWS];
+        this.starts = new int[INITIAL_ROWS];
+        this.lengths = new int[INITIAL_ROWS];
+        this.scores = new float[INITIAL_ROWS];
+        this.graded = new boolean[INITIAL_ROWS];
+        this.rows = new Symbols.Index(INITIAL_ROWS);
+        this.statistics = new GradeStatistics(key == null ? 0 : key.getMaxScore());
+    }
+
+    private AnswerColumns(AnswerColumns source) {
+        this.examId = source.examId;
+        this.answerKey = source.answerKey;
+        this.key = source.key;
+        this.slots = Arrays.copyOf(source.slots, source.answerCount);
+        this.choices = Arrays.copyOf(source.choices, source.answerCount);
+        this.answerCount = source.answerCount;
+        this.unusedAnswers = source.unusedAnswers;
+        this.overflow = new HashMap<>(source.overflow);
+        this.studentIds = Arrays.copyOf(source.studentIds, source.rowCount);
+        this.starts = Arrays.copyOf(source.starts, source.rowCount);
+        this.lengths = Arrays.copyOf(source.lengths, source.rowCount);
+        this.scores = Arrays.copyOf(source.scores, source.rowCount);
+        this.graded = Arrays.copyOf(source.graded, source.rowCount);
+        this.rowCount = source.rowCount;
+        this.rows = new Symbols.Index(source.rows);
+        this.statistics = new GradeStatistics(source.statistics);
+    }
+
+    public String getExamId() {
+        return examId;
+    }
+
+    public synchronized AnswerColumns copy() {
+        return new AnswerColumns(this);
+    }
+
+    public synchronized void put(String studentId, List<Answer> answers) {
+        refreshKey();
+        int count = answers.size();
+        int student = Symbols.intern(studentId);
+        int row = rows.get(student);
+        if (row == Symbols.NONE) {
+            if (rowCount == studentIds.length) {
+                growRows();
+            }
+            row = rowCount++;
+            studentIds[row] = student;
+            rows.putIfAbsent(student, row);
+            starts[row] = allocate(count);
+        } else {
+            if (graded[row]) {
+                statistics.remove(scores[row]);
+            }
+            for (int index = starts[row], end = index + lengths[row]; index < end; index++) {
+                overflow.remove(index);
+            }
+            if (count > lengths[row]) {
+                unusedAnswers += lengths[row];
+                starts[row] = allocate(count);
+            } else {
+                unusedAnswers += lengths[row] - count;
+            }
+        }
+        lengths[row] = count;
+        scores[row] = 0;
+        graded[row] = false;
+
+        for (int i = 0; i < count; i++) {
+            Answer answer = answers.get(i);
+            encode(starts[row] + i, answer.getQuestionSymbol(), answer.getContent());
+            if (answer.isGraded()) {
+                scores[row] = answer.getTotalScore();
+                graded[row] = true;
+            }
+        }
+        if (graded[row]) {
+            statistics.add(scores[row]);
+        }
+        if (unusedAnswers > INITIAL_ANSWERS && unusedAnswers * 2 > answerCount) {
+            relayout(key);
+        }
+    }
+
+    private int allocate(int count) {
+        ensureAnswerCapacity(answerCount + count);
+        int start = answerCount;
+        answerCount += count;
+        return start;
+    }
+
+    private void encode(int index, int questionSymbol, String content) {
+        int slot = key == null ? -1 : key.slotOf(questionSymbol);
+        boolean compactSlot = slot >= 0 && slot <= Short.MAX_VALUE;
+        boolean compactChoice = content != null && content.length() == 1
+                && content.charAt(0) > 0 && content.charAt(0) < 128;
+
+        slots[index] = compactSlot ? (short) slot : NO_SLOT;
+        choices[index] = compactChoice ? (byte) content.charAt(0) : NO_CHOICE;
+        if (!compactSlot || !compactChoice) {
+            overflow.put(index, new String[] { Symbols.name(questionSymbol), content });
+        }
+    }
+
+    private void refreshKey() {
+        AnswerKey current = answerKey.get();
+        if (current != null && current != key) {
+            relayout(current);
+        }
+    }
+
+    private void relayout(AnswerKey newKey) {
+        AnswerKey oldKey = key;
+        short[] oldSlots = slots;
+        byte[] oldChoices = choices;
+        Map<Integer, String[]> oldOverflow = overflow;
+
+        int live = answerCount - unusedAnswers;
+        key = newKey;
+        slots = new short[Math.max(INITIAL_ANSWERS, live)];
+        choices = new byte[slots.length];
+        overflow = new HashMap<>();
+        answerCount = 0;
+        unusedAnswers = 0;
+
+        for (int row = 0; row < rowCount; row++) {
+            int start = starts[row];
+            starts[row] = allocate(lengths[row]);
+            for (int i = 0; i < lengths[row]; i++) {
+                int index = start + i;
+                String[] values = oldOverflow.get(index);
+                int questionSymbol = oldSlots[index] != NO_SLOT ? oldKey.questionSymbolAt(oldSlots[index])
+                        : Symbols.intern(values[0]);
+                String content = oldChoices[index] != NO_CHOICE ? AnswerKey.choiceString((char) oldChoices[index])
+                        : values[1];
+                encode(starts[row] + i, questionSymbol, content);
+            }
+        }
+
+        if (newKey != oldKey) {
+            statistics = new GradeStatistics(newKey.getMaxScore());
+            for (int row = 0; row < rowCount; row++) {
+                if (graded[row]) {
+                    statistics.add(scores[row]);
+                }
+            }
+        }
+    }
+
+    private void growRows() {
+        int capacity = studentIds.length * 2;
+        studentIds = Arrays.copyOf(studentIds, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        graded = Arrays.copyOf(graded, capacity);
+    }
+
+    private void ensureAnswerCapacity(int required) {
+        if (required <= slots.length)
+            return;
+        int capacity = Math.max(required, slots.length * 2);
+        slots = Arrays.copyOf(slots, capacity);
+        choices = Arrays.copyOf(choices, capacity);
+    }
+
+    public synchronized boolean contains(String studentId) {
+        return rows.get(Symbols.lookup(studentId)) != Symbols.NONE;
+    }
+
+    public synchronized List<Answer> get(String studentId) {
+        int row = rows.get(Symbols.lookup(studentId));
+        return row == Symbols.NONE ? null : new SubmissionView(row);
+    }
+
+    public synchronized int size() {
+        return rowCount;
+    }
+
+    public ItemAnalysis analyzeItems() {
+        AnswerKey analysisKey;
+        int rowsToAnalyze;
+        int[] rowStarts;
+        int[] rowLengths;
+        short[] answerSlots;
+        byte[] answerChoices;
+        Map<Integer, String[]> overflowCopy;
+        synchronized (this) {
+            refreshKey();
+            analysisKey = key;
+            rowsToAnalyze = rowCount;
+            rowStarts = Arrays.copyOf(starts, rowCount);
+            rowLengths = Arrays.copyOf(lengths, rowCount);
+            answerSlots = Arrays.copyOf(slots, answerCount);
+            answerChoices = Arrays.copyOf(choices, answerCount);
+            overflowCopy = new HashMap<>(overflow);
+        }
+        return ItemAnalysis.compute(analysisKey, rowsToAnalyze, rowStarts, rowLengths, answerSlots, answerChoices,
+                overflowCopy::get);
+    }
+
+    public synchronized GradingEngine.Gradable grading() {
+        refreshKey();
+        return new Grading(key, Arrays.copyOf(studentIds, rowCount), Arrays.copyOf(starts, rowCount),
+                Arrays.copyOf(lengths, rowCount), Arrays.copyOf(slots, answerCount),
+                Arrays.copyOf(choices, answerCount), new HashMap<>(overflow));
+    }
+
+    public synchronized GradeStatistics.Summary statistics() {
+        refreshKey();
+        return statistics.summary();
+    }
+
+    public synchronized int answerCount() {
+        return answerCount;
+    }
+
+    synchronized int readRows(int from, int[] students, int[] answered, float[] rowScores, boolean[] rowGraded) {
+        int count = Math.max(0, Math.min(students.length, rowCount - from));
+        System.arraycopy(studentIds, from, students, 0, count);
+        System.arraycopy(lengths, from, answered, 0, count);
+        System.arraycopy(scores, from, rowScores, 0, count);
+        System.arraycopy(graded, from, rowGraded, 0, count);
+        return count;
+    }
+
+    public Map<String, List<Answer>> asMap() {
+        return new ExamView();
+    }
+
+    private synchronized String studentIdAt(int row) {
+        return Symbols.name(studentIds[row]);
+    }
+
+    private synchronized int lengthOf(int row) {
+        return lengths[row];
+    }
+
+    private synchronized String questionIdAt(int row, int i) {
+        int index = starts[row] + i;
+        if (slots[index] != NO_SLOT)
+            return key.questionIdAt(slots[index]);
+        return overflow.get(index)[0];
+    }
+
+    private synchronized int questionSymbolAt(int row, int i) {
+        int index = starts[row] + i;
+        if (slots[index] != NO_SLOT)
+            return key.questionSymbolAt(slots[index]);
+        return Symbols.lookup(overflow.get(index)[0]);
+    }
+
+    private synchronized String contentAt(int row, int i) {
+        int index = starts[row] + i;
+        if (choices[index] != NO_CHOICE)
+            return AnswerKey.choiceString((char) choices[index]);
+        return overflow.get(index)[1];
+    }
+
+    private synchronized float scoreOf(int row) {
+        return scores[row];
+    }
+
+    private synchronized boolean isGraded(int row) {
+        return graded[row];
+    }
+
+    private synchronized void setScore(int row, float score) {
+        updateScore(row, score);
+    }
+
+    private synchronized void applyScores(float[] rowScores) {
+        for (int row = 0, n = Math.min(rowScores.length, rowCount); row < n; row++) {
+            updateScore(row, rowScores[row]);
+        }
+    }
+
+    private void updateScore(int row, float score) {
+        if (graded[row]) {
+            if (scores[row] == score)
+                return;
+            statistics.remove(scores[row]);
+        }
+        scores[row] = score;
+        graded[row] = true;
+        statistics.add(score);
+    }
+
+    private synchronized float grade(int row, AnswerKey answerKey) {
+        if (answerKey != key) {
+            refreshKey();
+            if (answerKey != key)
+                return -1;
+        }
+        return grade(answerKey, starts[row], lengths[row], slots, choices, overflow);
+    }
+
+    private static float grade(AnswerKey answerKey, int start, int length, short[] slots, byte[] choices,
+            Map<Integer, String[]> overflow) {
+        float total = 0;
+        for (int index = start, end = start + length; index < end; index++) {
+            int slot = slots[index];
+            byte choice = choices[index];
+            boolean correct;
+            if (slot != NO_SLOT && choice != NO_CHOICE) {
+                correct = answerKey.isCorrect(slot, (char) choice);
+            } else {
+                String[] values = overflow.get(index);
+                slot = slot != NO_SLOT ? slot : answerKey.slotOf(values[0]);
+                String content = choice != NO_CHOICE ? AnswerKey.choiceString((char) choice) : values[1];
+                correct = slot >= 0 && answerKey.isCorrect(slot, content);
+            }
+            if (correct) {
+                total += answerKey.pointsAt(slot);
+            }
+        }
+        return total;
+    }
+
+    private class Grading implements GradingEngine.Gradable {
+        private final AnswerKey answerKey;
+        private final int[] students;
+        private final int[] rowStarts;
+        private final int[] rowLengths;
+        private final short[] answerSlots;
+        private final byte[] answerChoices;
+        private final Map<Integer, String[]> overflowCopy;
+
+        Grading(AnswerKey answerKey, int[] students, int[] rowStarts, int[] rowLengths, short[] answerSlots,
+                byte[] answerChoices, Map<Integer, String[]> overflowCopy) {
+            this.answerKey = answerKey;
+            this.students = students;
+            this.rowStarts = rowStarts;
+            this.rowLengths = rowLengths;
+            this.answerSlots = answerSlots;
+            this.answerChoices = answerChoices;
+            this.overflowCopy = overflowCopy;
+        }
+
+        @Override
+        public int size() {
+            return students.length;
+        }
+
+        @Override
+        public String studentIdAt(int index) {
+            return Symbols.name(students[index]);
+        }
+
+        @Override
+        public int answerCountAt(int index) {
+            return rowLengths[index];
+        }
+
+        @Override
+        public float score(int index) {
+            if (answerKey == null)
+                return 0;
+            return grade(answerKey, rowStarts[index], rowLengths[index], answerSlots, answerChoices, overflowCopy);
+        }
+
+        @Override
+        public void applyScores(float[] scores) {
+            AnswerColumns.this.applyScores(scores);
+        }
+    }
+
+    class SubmissionView extends AbstractList<Answer> implements RandomAccess {
+        private final int row;
+
+        SubmissionView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Answer get(int index) {
+            if (index < 0 || index >= size())
+                throw new IndexOutOfBoundsException(index);
+            return new AnswerView(row, index);
+        }
+
+        @Override
+        public int size() {
+            return lengthOf(row);
+        }
+
+        float score(AnswerKey answerKey) {
+            return grade(row, answerKey);
+        }
+    }
+
+    private class AnswerView extends Answer {
+        private final int row;
+        private final int index;
+
+        AnswerView(int row, int index) {
+            super(null, examId, null, null);
+            this.row = row;
+            this.index = index;
+        }
+
+        @Override
+        public String getQuestionId() {
+            return questionIdAt(row, index);
+        }
+
+        @Override
+        public int getQuestionSymbol() {
+            return questionSymbolAt(row, index);
+        }
+
+        @Override
+        public String getContent() {
+            return contentAt(row, index);
+        }
+
+        @Override
+        public boolean validate() {
+            String content = getContent();
+            return content != null && !content.trim().isEmpty();
+        }
+
+        @Override
+        public boolean isGraded() {
+            return AnswerColumns.this.isGraded(row);
+        }
+
+        @Override
+        public float getScore() {
+            return scoreOf(row);
+        }
+
+        @Override
+        public float getTotalScore() {
+            return scoreOf(row);
+        }
+
+        @Override
+        public void setTotalScore(float score) {
+            setScore(row, score);
+        }
+    }
+
+    private class ExamView extends AbstractMap<String, List<Answer>> {
+        @Override
+        public List<Answer> get(Object studentId) {
+            return studentId instanceof String id ? AnswerColumns.this.get(id) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object studentId) {
+            return studentId instanceof String id && contains(id);
+        }
+
+        @Override
+        public int size() {
+            return AnswerColumns.this.size();
+        }
+
+        @Override
+        public Set<Entry<String, List<Answer>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, List<Answer>>> iterator() {
+                    int end = AnswerColumns.this.size();
+                    return new Iterator<>() {
+                        private int row;
+
+                        @Override
+                        public boolean hasNext() {
+                            return row < end;
+                        }
+
+                        @Override
+                        public Entry<String, List<Answer>> next() {
+                            if (row >= end)
+                                throw new NoSuchElementException();
+                            int current = row++;
+                            return new SimpleImmutableEntry<>(studentIdAt(current), new SubmissionView(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return AnswerColumns.this.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.end.lms;
+
+import java.util.List;
+
+public final class AnswerKey {
+    private static final char NOT_A_CHOICE = 0;
+    private static final String[] CHOICE_STRINGS = new String[128];
+
+    static {
+        for (int i = 1; i < CHOICE_STRINGS.length; i++) {
+            CHOICE_STRINGS[i] = String.valueOf((char) i);
+        }
+    }
+
+    private final Symbols.Index slots;
+    private final int[] questionIds;
+    private final char[] correctChoices;
+    private final float[] points;
+    private final float maxScore;
+    private final Question[] questions;
+    private final int modification;
+
+    private AnswerKey(List<Question> questionList, int modification) {
+        int size = questionList.size();
+        this.slots = new Symbols.Index(size);
+        this.questionIds = new int[size];
+        this.correctChoices = new char[size];
+        this.points = new float[size];
+        this.questions = new Question[size];
+        this.modification = modification;
+
+        float total = 0;
+        for (int slot = 0; slot < size; slot++) {
+            Question question = questionList.get(slot);
+            slots.putIfAbsent(question.getQuestionSymbol(), slot);
+            questionIds[slot] = question.getQuestionSymbol();
+            questions[slot] = question;
+            correctChoices[slot] = choiceOf(question);
+            points[slot] = question.getScore();
+            total += points[slot];
+        }
+        this.maxScore = total;
+    }
+
+    public static AnswerKey compile(List<Question> questions) {
+        return new AnswerKey(questions, 0);
+    }
+
+    static AnswerKey compile(List<Question> questions, int modification) {
+        return new AnswerKey(questions, modification);
+    }
+
+    private static char choiceOf(Question question) {
+        String correct = question.getCorrectAnswer();
+        if (question.isMultipleChoice() && correct != null && correct.length() == 1) {
+            return correct.charAt(0);
+        }
+        return NOT_A_CHOICE;
+    }
+
+    int getModification() {
+        return modification;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public int slotOf(String questionId) {
+        return slotOf(Symbols.lookup(questionId));
+    }
+
+    public int slotOf(int questionSymbol) {
+        return slots.get(questionSymbol);
+    }
+
+    public String questionIdAt(int slot) {
+        return Symbols.name(questionIds[slot]);
+    }
+
+    public int questionSymbolAt(int slot) {
+        return questionIds[slot];
+    }
+
+    public Question questionAt(int slot) {
+        return questions[slot];
+    }
+
+    public float pointsAt(int slot) {
+        return points[slot];
+    }
+
+    public float getMaxScore() {
+        return maxScore;
+    }
+
+    char correctChoiceAt(int slot) {
+        return correctChoices[slot];
+    }
+
+    public boolean isCorrect(int slot, String content) {
+        char choice = correctChoices[slot];
+        if (choice != NOT_A_CHOICE) {
+            return content != null && content.length() == 1 && content.charAt(0) == choice;
+        }
+        return questions[slot].validateAnswer(content);
+    }
+
+    static String choiceString(char choice) {
+        return choice < CHOICE_STRINGS.length ? CHOICE_STRINGS[choice] : String.valueOf(choice);
+    }
+
+    boolean isCorrect(int slot, char choice) {
+        char correct = correctChoices[slot];
+        if (correct != NOT_A_CHOICE)
+            return choice == correct;
+        return questions[slot].validateAnswer(choiceString(choice));
+    }
+
+    public float score(List<Answer> answers) {
+        if (answers == null)
+            return 0;
+        if (answers instanceof AnswerColumns.SubmissionView submission) {
+            float score = submission.score(this);
+            if (score >= 0)
+                return score;
+        }
+
+        float totalScore = 0;
+        for (int i = 0, n = answers.size(); i < n; i++) {
+            Answer answer = answers.get(i);
+            int slot = slotOf(answer.getQuestionSymbol());
+            if (slot >= 0 && isCorrect(slot, answer.getContent())) {
+                totalScore += points[slot];
+            }
+        }
+        return totalScore;
+    }
+}
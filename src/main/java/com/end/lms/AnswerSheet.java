@@ -0,0 +1,72 @@
+package com.end.lms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnswerSheet {
+    private static final int MAX_OPTIONS = 255;
+
+    private final AnswerKey key;
+    private final byte[] choices;
+    private int answeredCount;
+    private volatile ChangeListener changeListener;
+
+    public interface ChangeListener {
+        void onSelect(int slot, int option);
+    }
+
+    public AnswerSheet(AnswerKey key) {
+        this.key = key;
+        this.choices = new byte[key.size()];
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    public int size() {
+        return choices.length;
+    }
+
+    public Question questionAt(int slot) {
+        return key.questionAt(slot);
+    }
+
+    public void select(int slot, int option) {
+        if (option >= MAX_OPTIONS)
+            throw new IllegalArgumentException("Option index out of range: " + option);
+
+        boolean wasAnswered = choices[slot] != 0;
+        choices[slot] = (byte) (option < 0 ? 0 : option + 1);
+        boolean isAnswered = choices[slot] != 0;
+        if (wasAnswered != isAnswered) {
+            answeredCount += isAnswered ? 1 : -1;
+        }
+
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onSelect(slot, option);
+        }
+    }
+
+    public int getSelected(int slot) {
+        return (choices[slot] & 0xFF) - 1;
+    }
+
+    public int getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public List<Answer> toAnswers(String studentId, String examId) {
+        List<Answer> answers = new ArrayList<>(answeredCount);
+        for (int slot = 0; slot < choices.length; slot++) {
+            int option = getSelected(slot);
+            if (option < 0)
+                continue;
+            Question question = key.questionAt(slot);
+            String text = question.getOptions().get(option);
+            answers.add(new Answer(studentId, examId, key.questionIdAt(slot), text.substring(0, 1)));
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,236 @@
+package com.end.lms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class AttemptJournal implements AutoCloseable, AnswerSheet.ChangeListener {
+    private static final int MAGIC = 0x4C4D534A;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 20;
+    private static final int RECORD_SIZE = 4;
+    private static final int FLUSH_CHANGES = Integer.getInteger("lms.autosave.changes", 16);
+    private static final long FLUSH_MILLIS = Long.getLong("lms.autosave.millis", 2000);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final AnswerSheet sheet;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> timer;
+    private final Object ioLock = new Object();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(64 * RECORD_SIZE);
+    private int[] pending = new int[64];
+    private int[] flushing = new int[64];
+    private int pendingCount;
+    private boolean flushQueued;
+    private boolean closed;
+
+    private AttemptJournal(Path file, FileChannel channel, AnswerSheet sheet, ScheduledExecutorService scheduler) {
+        this.file = file;
+        this.channel = channel;
+        this.sheet = sheet;
+        this.scheduler = scheduler;
+        this.timer = scheduler.scheduleWithFixedDelay(this::flushQuietly, FLUSH_MILLIS, FLUSH_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public static AttemptJournal open(Path file, String examId, AnswerKey key, ScheduledExecutorService scheduler)
+            throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = openChannel(file);
+        AnswerSheet sheet = new AnswerSheet(key);
+        ByteBuffer header = header(examId, key);
+        boolean needsCompaction;
+        try {
+            needsCompaction = replay(file, channel, header, sheet);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (needsCompaction) {
+            channel.close();
+            compact(file, header, sheet);
+            channel = openChannel(file);
+            channel.position(channel.size());
+        }
+
+        AttemptJournal journal = new AttemptJournal(file, channel, sheet, scheduler);
+        sheet.setChangeListener(journal);
+        return journal;
+    }
+
+    private static FileChannel openChannel(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer header(String examId, AnswerKey key) {
+        byte[] exam = examId.getBytes(StandardCharsets.UTF_8);
+        long fingerprint = 0xCBF29CE484222325L;
+        for (int slot = 0; slot < key.size(); slot++) {
+            String questionId = key.questionIdAt(slot);
+            for (int i = 0; i < questionId.length(); i++) {
+                fingerprint = (fingerprint ^ questionId.charAt(i)) * 0x100000001B3L;
+            }
+            fingerprint = (fingerprint ^ 0xFFFF) * 0x100000001B3L;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + exam.length);
+        header.putInt(MAGIC).putInt(VERSION).putInt(key.size()).putLong(fingerprint).put(exam).flip();
+        return header;
+    }
+
+    private static boolean replay(Path file, FileChannel channel, ByteBuffer header, AnswerSheet sheet)
+            throws IOException {
+        long size = channel.size();
+        int headerSize = header.remaining();
+        if (size >= headerSize) {
+            ByteBuffer existing = ByteBuffer.allocate(headerSize);
+            channel.read(existing, 0);
+            existing.flip();
+            if (existing.equals(header)) {
+                long end = headerSize + (size - headerSize) / RECORD_SIZE * RECORD_SIZE;
+                ByteBuffer records = ByteBuffer.allocate((int) (end - headerSize));
+                channel.read(records, headerSize);
+                records.flip();
+                int recordCount = records.remaining() / RECORD_SIZE;
+                while (records.remaining() >= RECORD_SIZE) {
+                    int record = records.getInt();
+                    int slot = record >>> 8;
+                    if (slot < sheet.size()) {
+                        sheet.select(slot, (record & 0xFF) - 1);
+                    }
+                }
+                channel.truncate(end);
+                channel.position(end);
+                return recordCount > sheet.getAnsweredCount() * 2 + FLUSH_CHANGES;
+            }
+        }
+
+        if (size > 0) {
+            Events.warn("autosave.journal_mismatch", "file", file);
+        }
+        channel.truncate(0);
+        channel.write(header.duplicate(), 0);
+        channel.position(headerSize);
+        channel.force(false);
+        return false;
+    }
+
+    private static void compact(Path file, ByteBuffer header, AnswerSheet sheet) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(header.remaining() + sheet.getAnsweredCount() * RECORD_SIZE);
+        buffer.put(header.duplicate());
+        for (int slot = 0; slot < sheet.size(); slot++) {
+            int option = sheet.getSelected(slot);
+            if (option >= 0) {
+                buffer.putInt((slot << 8) | (option + 1));
+            }
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, buffer.array(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public AnswerSheet getSheet() {
+        return sheet;
+    }
+
+    @Override
+    public void onSelect(int slot, int option) {
+        boolean queueFlush;
+        synchronized (this) {
+            if (closed)
+                return;
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[pendingCount++] = (slot << 8) | ((option + 1) & 0xFF);
+            queueFlush = pendingCount >= FLUSH_CHANGES && !flushQueued;
+            if (queueFlush) {
+                flushQueued = true;
+            }
+        }
+        if (queueFlush) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    flushQueued = false;
+                }
+                Events.warn("autosave.flush_rejected", "file", file);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            Events.warn("autosave.flush_failed", "file", file, "error", e.getMessage());
+        }
+    }
+
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            int[] batch;
+            int count;
+            synchronized (this) {
+                flushQueued = false;
+                if (pendingCount == 0 || closed)
+                    return;
+                batch = pending;
+                count = pendingCount;
+                pending = flushing;
+                pendingCount = 0;
+                flushing = batch;
+            }
+
+            for (int i = 0; i < count; i++) {
+                if (!writeBuffer.hasRemaining()) {
+                    drainWriteBuffer();
+                }
+                writeBuffer.putInt(batch[i]);
+            }
+            drainWriteBuffer();
+            channel.force(false);
+        }
+    }
+
+    private void drainWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        timer.cancel(false);
+        synchronized (ioLock) {
+            try {
+                flush();
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                }
+                sheet.setChangeListener(null);
+                channel.close();
+            }
+        }
+    }
+
+    public void discard() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+}
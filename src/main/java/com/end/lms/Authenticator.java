@@ -0,0 +1,154 @@
+package com.end.lms;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class Authenticator implements AutoCloseable {
+    private static final int VERIFIERS = Integer.getInteger("lms.auth.verifiers",
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int QUEUE_CAPACITY = Integer.getInteger("lms.auth.queue", 4096);
+    private static final long SESSION_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("lms.auth.session.minutes", 30));
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec fingerprintKey;
+    private final ThreadPoolExecutor verifiers;
+    private volatile String dummyHash;
+
+    public record Session(String token, User user, long expiresAtMillis) {
+    }
+
+    private record Verified(byte[] fingerprint, long expiresAtMillis) {
+    }
+
+    public Authenticator() {
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        this.fingerprintKey = new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+        this.verifiers = new ThreadPoolExecutor(VERIFIERS, VERIFIERS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                Thread.ofPlatform().name("credential-verifier-", 0).daemon().factory());
+    }
+
+    public void register(User user) {
+        users.put(user.getUsername(), user);
+    }
+
+    public CompletableFuture<Optional<Session>> login(String username, String password) {
+        long start = System.nanoTime();
+        if (username == null || password == null)
+            return CompletableFuture.completedFuture(Optional.empty());
+
+        User user = users.get(username);
+        byte[] fingerprint = fingerprint(username, password);
+        Verified cached = verified.get(username);
+        if (user != null && cached != null && !isExpired(cached.expiresAtMillis())
+                && MessageDigest.isEqual(cached.fingerprint(), fingerprint)) {
+            Metrics.get().recordLogin(true, System.nanoTime() - start);
+            return CompletableFuture.completedFuture(Optional.of(openSession(user)));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (user == null) {
+                    PasswordHash.verify(password, dummyHash());
+                    Metrics.get().recordFailedLogin();
+                    return Optional.<Session>empty();
+                }
+                if (!user.validatePassword(password)) {
+                    Metrics.get().recordFailedLogin();
+                    return Optional.<Session>empty();
+                }
+                verified.put(username, new Verified(fingerprint, System.currentTimeMillis() + SESSION_MILLIS));
+                Metrics.get().recordLogin(false, System.nanoTime() - start);
+                return Optional.of(openSession(user));
+            }, verifiers);
+        } catch (RejectedExecutionException e) {
+            Metrics.get().recordRejectedLogin();
+            Events.warn("auth.rejected", "username", username, "queued", verifiers.getQueue().size());
+            return CompletableFuture.failedFuture(new IllegalStateException("Too many sign-ins in progress, try again"));
+        }
+    }
+
+    public Session resume(String token) {
+        if (token == null)
+            return null;
+        Session session = sessions.get(token);
+        if (session == null)
+            return null;
+        if (isExpired(session.expiresAtMillis())) {
+            sessions.remove(token, session);
+            return null;
+        }
+        return session;
+    }
+
+    public void logout(String token) {
+        if (token == null)
+            return;
+        Session session = sessions.remove(token);
+        if (session != null) {
+            verified.remove(session.user().getUsername());
+        }
+    }
+
+    private Session openSession(User user) {
+        if (sessions.size() >= users.size() * 2) {
+            sessions.values().removeIf(session -> isExpired(session.expiresAtMillis()));
+        }
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user, System.currentTimeMillis() + SESSION_MILLIS);
+        sessions.put(token, session);
+        return session;
+    }
+
+    private byte[] fingerprint(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = PasswordHash.hash("");
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private static boolean isExpired(long expiresAtMillis) {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+
+    @Override
+    public void close() {
+        verifiers.shutdownNow();
+        sessions.clear();
+        verified.clear();
+    }
+}
@@ -0,0 +1,244 @@
+package com.end.lms;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class BulkImporter implements AutoCloseable {
+    private static final int CHUNK_SIZE = Integer.getInteger("lms.import.chunk.size", 512);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String MULTIPLE_CHOICE = "MULTIPLE_CHOICE";
+
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    public record RowError(long line, String message) {
+    }
+
+    public record Result(long rows, long imported, long errors, List<RowError> reportedErrors) {
+    }
+
+    public interface RowMapper<T> {
+        T map(RecordReader.Record record);
+    }
+
+    public interface RowSink<T> {
+        void accept(long line, T value);
+    }
+
+    private record Mapped<T>(long line, T value, String error) {
+    }
+
+    private record ImportedQuestion(String examId, String examTitle, Question question) {
+    }
+
+    public BulkImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BulkImporter(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.workers = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("import-worker-", 0).daemon().factory());
+    }
+
+    public Result importExams(RecordReader reader, Consumer<Exam> onExam) throws IOException {
+        Map<String, Exam> exams = new LinkedHashMap<>();
+        Map<String, Set<String>> questionIds = new HashMap<>();
+        Result result = run(reader, BulkImporter::mapQuestion, (line, imported) -> {
+            if (!questionIds.computeIfAbsent(imported.examId(), k -> new HashSet<>())
+                    .add(imported.question().getQuestionId()))
+                throw new IllegalArgumentException("duplicate question " + imported.question().getQuestionId()
+                        + " in exam " + imported.examId());
+            exams.computeIfAbsent(imported.examId(), id -> new Exam(id, imported.examTitle()))
+                    .addQuestion(imported.question());
+        });
+        exams.values().forEach(onExam);
+        return result;
+    }
+
+    public Result importRoster(RecordReader reader, Consumer<User> onUser) throws IOException {
+        Set<String> userIds = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        return run(reader, BulkImporter::mapUser, (line, user) -> {
+            if (!userIds.add(user.getUserId()))
+                throw new IllegalArgumentException("duplicate user id " + user.getUserId());
+            if (!usernames.add(user.getUsername()))
+                throw new IllegalArgumentException("duplicate username " + user.getUsername());
+            onUser.accept(user);
+        });
+    }
+
+    public <T> Result run(RecordReader reader, RowMapper<T> mapper, RowSink<T> sink) throws IOException {
+        long start = System.nanoTime();
+        Deque<Future<List<Mapped<T>>>> inFlight = new ArrayDeque<>();
+        long[] counts = new long[3];
+        List<RowError> reported = new ArrayList<>();
+
+        try (reader) {
+            List<RecordReader.Record> chunk = new ArrayList<>(CHUNK_SIZE);
+            RecordReader.Record record;
+            while ((record = reader.next()) != null) {
+                counts[0]++;
+                chunk.add(record);
+                if (chunk.size() == CHUNK_SIZE) {
+                    inFlight.addLast(submit(chunk, mapper));
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                    if (inFlight.size() >= parallelism * 2) {
+                        apply(inFlight.removeFirst(), sink, counts, reported);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.addLast(submit(chunk, mapper));
+            }
+            while (!inFlight.isEmpty()) {
+                apply(inFlight.removeFirst(), sink, counts, reported);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        Events.info("import.completed", "rows", counts[0], "imported", counts[1], "errors", counts[2],
+                "millis", (System.nanoTime() - start) / 1_000_000);
+        return new Result(counts[0], counts[1], counts[2], List.copyOf(reported));
+    }
+
+    private <T> Future<List<Mapped<T>>> submit(List<RecordReader.Record> chunk, RowMapper<T> mapper) {
+        return workers.submit(() -> {
+            List<Mapped<T>> mapped = new ArrayList<>(chunk.size());
+            for (RecordReader.Record record : chunk) {
+                if (record.error() != null) {
+                    mapped.add(new Mapped<>(record.line(), null, record.error()));
+                    continue;
+                }
+                try {
+                    mapped.add(new Mapped<>(record.line(), mapper.map(record), null));
+                } catch (RuntimeException e) {
+                    mapped.add(new Mapped<>(record.line(), null, e.getMessage()));
+                }
+            }
+            return mapped;
+        });
+    }
+
+    private <T> void apply(Future<List<Mapped<T>>> future, RowSink<T> sink, long[] counts, List<RowError> reported)
+            throws IOException {
+        List<Mapped<T>> mapped;
+        try {
+            mapped = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Import worker failed", e.getCause());
+        }
+
+        for (Mapped<T> row : mapped) {
+            String error = row.error();
+            if (error == null) {
+                try {
+                    sink.accept(row.line(), row.value());
+                    counts[1]++;
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            counts[2]++;
+            if (reported.size() < MAX_REPORTED_ERRORS) {
+                reported.add(new RowError(row.line(), error));
+            }
+        }
+    }
+
+    private static ImportedQuestion mapQuestion(RecordReader.Record record) {
+        String examId = required(record, "exam_id");
+        String questionId = required(record, "question_id");
+        String content = required(record, "content");
+        String title = record.get("exam_title");
+        String type = optional(record, "type", MULTIPLE_CHOICE).toUpperCase(Locale.ROOT);
+
+        int score;
+        try {
+            score = Integer.parseInt(optional(record, "score", "20"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("score is not a number: " + record.get("score"));
+        }
+        if (score <= 0)
+            throw new IllegalArgumentException("score must be positive");
+
+        Question question = new Question(questionId, content, score, type);
+        List<String> options = record.getList("options");
+        for (String option : options) {
+            question.addOption(option.trim());
+        }
+
+        String answer = record.get("answer");
+        if (MULTIPLE_CHOICE.equals(type)) {
+            if (options.size() < 2)
+                throw new IllegalArgumentException("multiple choice question needs at least two options");
+            if (answer == null || answer.trim().length() != 1)
+                throw new IllegalArgumentException("answer must be a single option letter");
+            answer = answer.trim().toUpperCase(Locale.ROOT);
+            if (answer.charAt(0) < 'A' || answer.charAt(0) >= 'A' + options.size())
+                throw new IllegalArgumentException("answer " + answer + " does not match any of "
+                        + options.size() + " options");
+        }
+        question.setCorrectAnswer(answer == null || answer.isBlank() ? null : answer);
+        return new ImportedQuestion(examId, title == null || title.isBlank() ? examId : title.trim(), question);
+    }
+
+    private static User mapUser(RecordReader.Record record) {
+        String userId = required(record, "user_id");
+        String username = required(record, "username");
+        String role = optional(record, "role", "STUDENT").toUpperCase(Locale.ROOT);
+        if (!role.equals("STUDENT") && !role.equals("LECTURER"))
+            throw new IllegalArgumentException("unknown role " + role);
+
+        String passwordHash = record.get("password_hash");
+        if (passwordHash != null && !passwordHash.isBlank()) {
+            if (!PasswordHash.isHash(passwordHash))
+                throw new IllegalArgumentException("password_hash is not a supported hash");
+            return role.equals("STUDENT") ? Student.withPasswordHash(userId, username, passwordHash)
+                    : Lecturer.withPasswordHash(userId, username, passwordHash);
+        }
+
+        String password = record.get("password");
+        if (password == null || password.isEmpty())
+            throw new IllegalArgumentException("password or password_hash is required");
+        return role.equals("STUDENT") ? Student.withPassword(userId, username, password)
+                : Lecturer.withPassword(userId, username, password);
+    }
+
+    private static String required(RecordReader.Record record, String name) {
+        String value = record.get(name);
+        if (value == null || value.isBlank())
+            throw new IllegalArgumentException(name + " is required");
+        return value.trim();
+    }
+
+    private static String optional(RecordReader.Record record, String name, String defaultValue) {
+        String value = record.get(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
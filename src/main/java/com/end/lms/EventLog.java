@@ -0,0 +1,240 @@
+package com.end.lms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class EventLog implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int capacity;
+    private final int mask;
+    private final int sheddingThreshold;
+    private final Event[] buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong headPosition = new AtomicLong();
+    private long head;
+    private final LongAdder dropped = new LongAdder();
+    private long reportedDropped;
+    private final Thread writer;
+    private volatile boolean closed;
+    private FileChannel channel;
+    private long fileBytes;
+
+    record Event(long timestampMillis, String level, String name, Object[] fields, long suppressed) {
+    }
+
+    private EventLog(Path file, int capacity, long maxFileBytes, int maxFiles) {
+        this.file = file;
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.sheddingThreshold = this.capacity - this.capacity / 4;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.buffer = new Event[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.writer = new Thread(this::writeLoop, "event-writer");
+        this.writer.setDaemon(true);
+    }
+
+    public static EventLog open(Path file) throws IOException {
+        return open(file, DEFAULT_CAPACITY, Long.getLong("lms.events.max.bytes", 10L * 1024 * 1024),
+                Integer.getInteger("lms.events.max.files", 5));
+    }
+
+    public static EventLog open(Path file, int capacity, long maxFileBytes, int maxFiles) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        EventLog log = new EventLog(file, capacity, maxFileBytes, maxFiles);
+        log.openChannel();
+        log.writer.start();
+        return log;
+    }
+
+    boolean offer(Event event) {
+        if (closed || ("INFO".equals(event.level()) && tail.get() - headPosition.get() >= sheddingThreshold)) {
+            drop();
+            return false;
+        }
+
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1))
+                    break;
+                position = tail.get();
+            } else if (difference < 0) {
+                drop();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) position & mask;
+        buffer[index] = event;
+        sequences.lazySet(index, position + 1);
+        if (position - headPosition.get() == capacity / 2) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    private void drop() {
+        dropped.increment();
+        Metrics.get().recordDroppedEvent();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueueDepth() {
+        return (int) Math.max(0, tail.get() - headPosition.get());
+    }
+
+    private Event poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1)
+            return null;
+        Event event = buffer[index];
+        buffer[index] = null;
+        sequences.lazySet(index, head + capacity);
+        head++;
+        headPosition.lazySet(head);
+        return event;
+    }
+
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(BATCH_SIZE * 96);
+        while (true) {
+            boolean draining = closed;
+            int count = 0;
+            Event event;
+            while (count < BATCH_SIZE && (event = poll()) != null) {
+                format(batch, event);
+                count++;
+            }
+
+            long droppedNow = dropped.sum();
+            if (droppedNow != reportedDropped) {
+                format(batch, new Event(System.currentTimeMillis(), "WARN", "events.dropped",
+                        new Object[] { "count", droppedNow - reportedDropped }, 0));
+                reportedDropped = droppedNow;
+            }
+
+            if (batch.length() > 0) {
+                write(batch);
+                batch.setLength(0);
+            } else if (draining) {
+                return;
+            } else if (tail.get() != head) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    static void format(StringBuilder line, Event event) {
+        line.append(Instant.ofEpochMilli(event.timestampMillis())).append(' ').append(event.level())
+                .append(' ').append(event.name());
+        Object[] fields = event.fields();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=');
+            appendValue(line, fields[i + 1]);
+        }
+        if (event.suppressed() > 0) {
+            line.append(" suppressed=").append(event.suppressed());
+        }
+        line.append('\n');
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        String text = String.valueOf(value);
+        if (text.isEmpty() || text.indexOf(' ') >= 0 || text.indexOf('"') >= 0 || text.indexOf('=') >= 0) {
+            line.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else {
+            line.append(text);
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(batch.toString());
+        try {
+            if (fileBytes > 0 && fileBytes + bytes.remaining() > maxFileBytes) {
+                rotate();
+            }
+            while (bytes.hasRemaining()) {
+                fileBytes += channel.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.print(batch);
+        }
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        openChannel();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
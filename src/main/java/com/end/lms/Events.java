@@ -0,0 +1,82 @@
+package com.end.lms;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Events {
+    private static final int MAX_PER_SECOND = Integer.getInteger("lms.events.per.second", 20);
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+    private static volatile EventLog sink;
+
+    private Events() {
+    }
+
+    public static void install(EventLog log) {
+        sink = log;
+    }
+
+    public static void uninstall(EventLog log) {
+        if (sink == log) {
+            sink = null;
+        }
+    }
+
+    public static void info(String event, Object... fields) {
+        emit(System.out, "INFO", event, fields);
+    }
+
+    public static void warn(String event, Object... fields) {
+        emit(System.err, "WARN", event, fields);
+    }
+
+    private static void emit(PrintStream out, String level, String event, Object[] fields) {
+        Limiter limiter = limiters.computeIfAbsent(event, k -> new Limiter());
+        long now = System.currentTimeMillis();
+        if (!limiter.tryAcquire(now / 1000)) {
+            Metrics.get().recordSuppressedEvent();
+            return;
+        }
+
+        EventLog.Event entry = new EventLog.Event(now, level, event, fields,
+                limiter.suppressed.sumThenReset());
+        EventLog log = sink;
+        if (log != null) {
+            log.offer(entry);
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(96);
+        EventLog.format(line, entry);
+        out.print(line);
+    }
+
+    private static final class Limiter {
+        private final AtomicLong state = new AtomicLong();
+        private final LongAdder suppressed = new LongAdder();
+
+        boolean tryAcquire(long second) {
+            while (true) {
+                long current = state.get();
+                long window = current >>> COUNT_BITS;
+                long count = current & COUNT_MASK;
+                long next;
+                if (window != second) {
+                    next = (second << COUNT_BITS) | 1;
+                } else if (count < MAX_PER_SECOND) {
+                    next = current + 1;
+                } else {
+                    suppressed.increment();
+                    return false;
+                }
+                if (state.compareAndSet(current, next))
+                    return true;
+            }
+        }
+    }
+}
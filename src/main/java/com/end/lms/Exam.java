@@ -1,19 +1,20 @@
 package com.end.lms;
 
-import com.end.lms.ui.ExamSystemUI;
-
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Exam {
-    private final String examId;
+    private final int examId;
     private final String title;
     private boolean isPublished;
     private final List<Question> questions;
+    private volatile AnswerKey answerKey;
+    private final AtomicInteger modifications = new AtomicInteger();
+    private KeyActionRules keyActionRules;
 
     public Exam(String examId, String title) {
-        this.examId = examId;
+        this.examId = Symbols.intern(examId);
         this.title = title;
         this.isPublished = false;
         this.questions = new ArrayList<>();
@@ -21,14 +22,21 @@ public class Exam {
 
     public void addQuestion(Question question) {
         questions.add(question);
+        question.attachTo(this);
+        modifications.incrementAndGet();
+    }
+
+    void questionChanged() {
+        modifications.incrementAndGet();
     }
 
     public void publish() {
         if (!questions.isEmpty()) {
+            this.answerKey = AnswerKey.compile(questions, modifications.get());
             this.isPublished = true;
-            System.out.println("Exam " + title + " has been published.");
+            Events.info("exam.published", "examId", getExamId(), "title", title, "questions", questions.size());
         } else {
-            System.out.println("Cannot publish exam without questions.");
+            Events.warn("exam.publish_rejected", "examId", getExamId(), "reason", "no questions");
         }
     }
 
@@ -36,33 +44,32 @@ public class Exam {
         if (answers == null || answers.isEmpty())
             return 0;
 
-        float totalScore = 0;
-        for (Answer answer : answers) {
-            Question question = findQuestionForAnswer(answer);
-            if (question != null && question.validateAnswer(answer.getContent())) {
-                totalScore += 20;
-            }
-        }
-        return totalScore;
+        return getAnswerKey().score(answers);
     }
 
-    private Question findQuestionForAnswer(Answer answer) {
-        return questions.stream()
-                .filter(q -> q.getQuestionId().equals(answer.getQuestionId()))
-                .findFirst()
-                .orElse(null);
+    public AnswerKey getAnswerKey() {
+        int modification = modifications.get();
+        AnswerKey key = answerKey;
+        if (key == null || key.getModification() != modification) {
+            key = AnswerKey.compile(questions, modification);
+            answerKey = key;
+        }
+        return key;
     }
 
-    public boolean isStudentEligible(Student student) {
+    public boolean isStudentEligible(Student student, SubmissionStore submissions) {
 
         if (!isPublished())
             return false;
 
-        Map<String, List<Answer>> studentExams = ExamSystemUI.getStudentAnswers().get(student.getUserId());
-        return studentExams == null || !studentExams.containsKey(examId);
+        return !submissions.hasSubmitted(student.getUserId(), getExamId());
     }
 
     public String getExamId() {
+        return Symbols.name(examId);
+    }
+
+    public int getExamSymbol() {
         return examId;
     }
 
@@ -74,6 +81,14 @@ public class Exam {
         return isPublished;
     }
 
+    public KeyActionRules getKeyActionRules() {
+        return keyActionRules != null ? keyActionRules : KeyActionRules.defaults();
+    }
+
+    public void setKeyActionRules(KeyActionRules keyActionRules) {
+        this.keyActionRules = keyActionRules;
+    }
+
     public List<Question> getQuestions() {
         return new ArrayList<>(questions);
     }
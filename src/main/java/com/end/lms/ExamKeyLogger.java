@@ -1,74 +1,105 @@
 package com.end.lms;
 
-import javafx.scene.input.KeyCode;
-import javafx.scene.input.KeyEvent;
-
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ExamKeyLogger {
-
-    private final List<KeyLogEntry> keyLogs;
-    private String lastAction;
-    private long lastLogTime;
+    private static final int DEFAULT_CAPACITY = 1024;
     private static final long LOG_DELAY = 1000;
+    private static final VarHandle CODES = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final KeyAction[] ACTIONS = KeyAction.values();
+    private static final Metrics METRICS = Metrics.get();
+
+    private final long[] timestamps;
+    private final int[] actionCodes;
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicLong lastEvent = new AtomicLong(-1);
+    private final LongAdder dropped = new LongAdder();
 
     public ExamKeyLogger() {
-        this.keyLogs = new ArrayList<>();
-        this.lastAction = "";
-        this.lastLogTime = 0;
+        this(DEFAULT_CAPACITY);
     }
 
-    public void logKeyEvent(KeyEvent event) {
-        String action = createKeyEventDescription(event);
-        if (action != null) {
-            addLogEntry(action);
-        }
+    public ExamKeyLogger(int capacity) {
+        this.timestamps = new long[capacity];
+        this.actionCodes = new int[capacity];
+    }
+
+    public void logKeyAction(KeyAction action) {
+        addLogEntry(action.ordinal());
     }
 
     public void logWindowUnfocused() {
-        addLogEntry("Switching Window");
+        addLogEntry(KeyAction.SWITCHING_WINDOW.ordinal());
     }
 
-    private void addLogEntry(String action) {
+    private void addLogEntry(int action) {
         long currentTime = System.currentTimeMillis();
+        long packed = (currentTime << 8) | action;
 
-        if (!action.equals(lastAction) || (currentTime - lastLogTime) >= LOG_DELAY) {
-            KeyLogEntry entry = new KeyLogEntry(action);
-            keyLogs.add(entry);
-            lastAction = action;
-            lastLogTime = currentTime;
+        while (true) {
+            long last = lastEvent.get();
+            if (last != -1 && (int) (last & 0xFF) == action && currentTime - (last >>> 8) < LOG_DELAY)
+                return;
+            if (lastEvent.compareAndSet(last, packed))
+                break;
         }
-    }
 
-    private String createKeyEventDescription(KeyEvent event) {
-        if (event.isControlDown()) {
-            if (event.getCode() == KeyCode.C)
-                return "Pressed Ctrl+C";
-            if (event.getCode() == KeyCode.V)
-                return "Pressed Ctrl+V";
-            if (event.getCode() == KeyCode.TAB)
-                return "Pressed Ctrl+Tab";
-            if (event.getCode() == KeyCode.WINDOWS)
-                return "Pressed Ctrl+Win";
-        }
+        int slot;
+        do {
+            slot = claimed.get();
+            if (slot >= timestamps.length) {
+                dropped.increment();
+                METRICS.recordDroppedKeyLogEvent();
+                return;
+            }
+        } while (!claimed.compareAndSet(slot, slot + 1));
 
-        if (event.isAltDown()) {
-            if (event.getCode() == KeyCode.TAB)
-                return "Pressed Alt+Tab";
-            if (event.getCode() == KeyCode.F4)
-                return "Pressed Alt+F4";
-        }
+        timestamps[slot] = currentTime;
+        CODES.setRelease(actionCodes, slot, action + 1);
+        METRICS.recordKeyLogEvent();
+    }
 
-        if (event.getCode() == KeyCode.WINDOWS)
-            return "Pressed Win";
-        if (event.getCode() == KeyCode.PRINTSCREEN)
-            return "Pressed PrtSc";
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
 
-        return null;
+    public int getCapacity() {
+        return timestamps.length;
     }
 
     public List<KeyLogEntry> getCheatingLogs() {
-        return new ArrayList<>(keyLogs);
+        int limit = Math.min(claimed.get(), timestamps.length);
+        int published = 0;
+        while (published < limit && (int) CODES.getAcquire(actionCodes, published) != 0) {
+            published++;
+        }
+        return new LogView(Arrays.copyOf(timestamps, published), Arrays.copyOf(actionCodes, published));
+    }
+
+    private static class LogView extends AbstractList<KeyLogEntry> {
+        private final long[] timestamps;
+        private final int[] actionCodes;
+
+        LogView(long[] timestamps, int[] actionCodes) {
+            this.timestamps = timestamps;
+            this.actionCodes = actionCodes;
+        }
+
+        @Override
+        public KeyLogEntry get(int index) {
+            return new KeyLogEntry(ACTIONS[actionCodes[index] - 1].getDescription(), timestamps[index]);
+        }
+
+        @Override
+        public int size() {
+            return timestamps.length;
+        }
     }
 }
@@ -0,0 +1,434 @@
+package com.end.lms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class ExamService implements AutoCloseable {
+    private static final long SNAPSHOT_INTERVAL_MINUTES = Long.getLong("lms.snapshot.interval.minutes", 5);
+    private static final long METRICS_INTERVAL_SECONDS = Long.getLong("lms.metrics.interval.seconds", 60);
+
+    private final Path walDir;
+    private final Path legacyWalFile;
+    private final Path snapshotFile;
+    private final Path metricsFile;
+    private final Path eventLogFile;
+    private final Path attemptsDir;
+    private final Map<String, Exam> exams = new ConcurrentHashMap<>();
+    private final SubmissionStore submissions = new SubmissionStore(examId -> {
+        Exam exam = exams.get(examId);
+        return exam == null ? null : exam.getAnswerKey();
+    });
+    private final KeyLogRepository keyLogs = new KeyLogRepository();
+    private final ResultExporter exporter = new ResultExporter(submissions, keyLogs);
+    private final Map<String, ExamSession> sessions = new ConcurrentHashMap<>();
+    private final GradingEngine gradingEngine = new GradingEngine();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("snapshot-writer").factory());
+    private final ScheduledExecutorService autosaveScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("autosave").factory());
+    private final Set<AttemptJournal> attemptJournals = ConcurrentHashMap.newKeySet();
+    private final Set<LogKey> submitting = ConcurrentHashMap.newKeySet();
+    private WriteAheadLog writeAheadLog;
+    private EventLog eventLog;
+    private long lastSnapshotPosition = -1;
+    private final NavigableMap<Long, Integer> uncommitted = new TreeMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, LongSupplier> gauges = Map.of(
+            Metrics.ACTIVE_SESSIONS, () -> sessions.values().stream().filter(ExamSession::isActive).count(),
+            Metrics.ACTIVE_STUDENTS, () -> sessions.values().stream().mapToLong(ExamSession::getActiveStudentCount).sum(),
+            Metrics.STORED_EXAMS, () -> exams.size(),
+            Metrics.STORED_SUBMISSIONS, () -> submissions.size(),
+            Metrics.STORED_LOG_GROUPS, () -> keyLogs.size(),
+            Metrics.SYMBOLS, Symbols::size);
+
+    private ExamService(Path dataDir) {
+        this.walDir = dataDir.resolve("wal");
+        this.legacyWalFile = dataDir.resolve("submissions.wal");
+        this.snapshotFile = dataDir.resolve("snapshot.bin");
+        this.metricsFile = dataDir.resolve("metrics.json");
+        this.eventLogFile = dataDir.resolve("logs").resolve("events.log");
+        this.attemptsDir = dataDir.resolve("attempts");
+    }
+
+    public static ExamService open(Path dataDir) {
+        ExamService service = new ExamService(dataDir);
+        service.gauges.forEach(Metrics.get()::registerGauge);
+        Metrics.registerMBean();
+        try {
+            service.load();
+        } catch (RuntimeException e) {
+            service.close();
+            throw e;
+        }
+        return service;
+    }
+
+    private void load() {
+        try {
+            eventLog = EventLog.open(eventLogFile);
+            Events.install(eventLog);
+        } catch (IOException e) {
+            Events.warn("events.open_failed", "file", eventLogFile, "error", e.getMessage());
+        }
+
+        Snapshot snapshot = null;
+        try {
+            snapshot = Snapshot.load(snapshotFile);
+        } catch (IOException e) {
+            Events.warn("snapshot.read_failed", "file", snapshotFile, "error", e.getMessage());
+        }
+
+        long walPosition = 0;
+        if (snapshot != null) {
+            exams.putAll(snapshot.getExams());
+            snapshot.getSubmissions().forEach(submissions::put);
+            snapshot.getKeyLogs().forEach(keyLogs::put);
+            walPosition = snapshot.getWalPosition();
+            lastSnapshotPosition = walPosition;
+        }
+
+        try {
+            if (Files.exists(legacyWalFile)) {
+                Files.createDirectories(walDir);
+                Files.move(legacyWalFile, WriteAheadLog.segmentFile(walDir, 0));
+            }
+            writeAheadLog = WriteAheadLog.open(walDir, walPosition, new WriteAheadLog.Replayer() {
+                @Override
+                public void onSubmission(String studentId, String examId, List<Answer> answers,
+                        List<KeyLogEntry> logs) {
+                    storeSubmission(studentId, examId, answers, logs);
+                }
+
+                @Override
+                public void onScore(String studentId, String examId, float score) {
+                    applyScore(studentId, examId, score);
+                }
+            });
+        } catch (IOException e) {
+            Events.warn("wal.open_failed", "directory", walDir, "error", e.getMessage());
+            throw new UncheckedIOException("Could not open the write-ahead log in " + walDir, e);
+        }
+
+        snapshotScheduler.scheduleWithFixedDelay(this::writeSnapshot,
+                SNAPSHOT_INTERVAL_MINUTES, SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        snapshotScheduler.scheduleWithFixedDelay(this::writeMetrics,
+                METRICS_INTERVAL_SECONDS, METRICS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void addExam(Exam exam) {
+        exams.put(exam.getExamId(), exam);
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public Exam getExam(String examId) {
+        return exams.get(examId);
+    }
+
+    public Collection<Exam> getExams() {
+        return Collections.unmodifiableCollection(exams.values());
+    }
+
+    public Exam findExamByTitle(String title) {
+        return exams.values().stream()
+                .filter(e -> e.getTitle().equals(title))
+                .findFirst()
+                .orElse(null);
+    }
+
+    public boolean isEligible(Student student, Exam exam) {
+        return exam.isStudentEligible(student, submissions);
+    }
+
+    public ExamKeyLogger beginAttempt(Student student, Exam exam) {
+        if (!isEligible(student, exam))
+            throw new IllegalStateException(student.getUserId() + " is not eligible for " + exam.getExamId());
+
+        ExamSession session = sessions.computeIfAbsent(exam.getExamId(), examId -> {
+            ExamSession newSession = new ExamSession(examId);
+            newSession.startSession();
+            return newSession;
+        });
+        return session.addActiveStudent(student.getUserId());
+    }
+
+    public boolean isAttemptActive(String studentId, String examId) {
+        ExamSession session = sessions.get(examId);
+        return session != null && session.isStudentActive(studentId);
+    }
+
+    public AttemptJournal openAttemptJournal(Student student, Exam exam) throws IOException {
+        Path file = attemptsDir.resolve(fileName(exam.getExamId()))
+                .resolve(fileName(student.getUserId()) + ".journal");
+        AttemptJournal journal = AttemptJournal.open(file, exam.getExamId(), exam.getAnswerKey(),
+                autosaveScheduler);
+        attemptJournals.add(journal);
+        return journal;
+    }
+
+    public void closeAttemptJournal(AttemptJournal journal, boolean discard) {
+        attemptJournals.remove(journal);
+        try {
+            if (discard) {
+                journal.discard();
+            } else {
+                journal.close();
+            }
+        } catch (IOException e) {
+            Events.warn("autosave.close_failed", "error", e.getMessage());
+        }
+    }
+
+    private static String fileName(String id) {
+        StringBuilder name = new StringBuilder(id.length());
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '_') {
+                name.append((char) b);
+            } else {
+                name.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return name.toString();
+    }
+
+    public CompletableFuture<Void> submit(Student student, Exam exam, List<Answer> answers) {
+        long start = System.nanoTime();
+        return CompletableFuture.runAsync(() -> {
+            String studentId = student.getUserId();
+            LogKey attempt = LogKey.of(exam.getExamId(), studentId);
+            if (!submitting.add(attempt))
+                throw new IllegalStateException(studentId + " is already submitting " + exam.getExamId());
+
+            ExamSession session = sessions.get(exam.getExamId());
+            try {
+                if (!isEligible(student, exam))
+                    throw new IllegalStateException(studentId + " is not eligible for " + exam.getExamId());
+
+                List<KeyLogEntry> logs = session != null ? session.getStudentCheatingLogs(studentId) : List.of();
+                long commit = beginCommit();
+                try {
+                    writeAheadLog.appendSubmission(studentId, exam.getExamId(), answers, logs).join();
+                    storeSubmission(studentId, exam.getExamId(), answers, logs);
+                } finally {
+                    endCommit(commit);
+                }
+            } finally {
+                submitting.remove(attempt);
+            }
+
+            if (session != null) {
+                session.removeActiveStudent(studentId);
+            }
+            Metrics.get().recordSubmit(System.nanoTime() - start);
+        }, executor);
+    }
+
+    private long beginCommit() {
+        synchronized (uncommitted) {
+            long position = writeAheadLog.position();
+            uncommitted.merge(position, 1, Integer::sum);
+            return position;
+        }
+    }
+
+    private void endCommit(long position) {
+        synchronized (uncommitted) {
+            uncommitted.computeIfPresent(position, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private long committedPosition() {
+        synchronized (uncommitted) {
+            return uncommitted.isEmpty() ? writeAheadLog.position() : uncommitted.firstKey();
+        }
+    }
+
+    private void storeSubmission(String studentId, String examId, List<Answer> answers, List<KeyLogEntry> logs) {
+        submissions.put(studentId, examId, answers);
+        keyLogs.put(studentId, examId, logs);
+        version.incrementAndGet();
+    }
+
+    public List<Answer> getSubmission(String studentId, String examId) {
+        return submissions.get(studentId, examId);
+    }
+
+    public Map<String, List<Answer>> getSubmissionsByStudent(String studentId) {
+        return submissions.forStudent(studentId);
+    }
+
+    public Map<String, List<Answer>> getSubmissionsForExam(String examId) {
+        return submissions.forExam(examId);
+    }
+
+    public GradeStatistics.Summary getGradeStatistics(String examId) {
+        return submissions.statistics(examId);
+    }
+
+    public ItemAnalysis analyzeItems(String examId) {
+        return submissions.analyzeItems(examId);
+    }
+
+    public Map<String, List<KeyLogEntry>> getLogsForExam(String examId) {
+        return keyLogs.forExam(examId);
+    }
+
+    public CompletableFuture<Long> exportGrades(Exam exam, Path file) {
+        return export(file, () -> exporter.exportGrades(exam, file));
+    }
+
+    public CompletableFuture<Long> exportLogs(String examId, Path file) {
+        return export(file, () -> exporter.exportLogs(examId, file));
+    }
+
+    private interface ExportTask {
+        long run() throws IOException;
+    }
+
+    private CompletableFuture<Long> export(Path file, ExportTask task) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                long rows = task.run();
+                Events.info("export.completed", "file", file, "rows", rows,
+                        "millis", (System.nanoTime() - start) / 1_000_000);
+                return rows;
+            } catch (IOException e) {
+                Events.warn("export.failed", "file", file, "error", e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Void> updateScore(String studentId, String examId, float score) {
+        List<Answer> answers = getSubmission(studentId, examId);
+        if (answers == null || answers.isEmpty()
+                || answers.get(0).isGraded() && answers.get(0).getTotalScore() == score)
+            return CompletableFuture.completedFuture(null);
+
+        long commit = beginCommit();
+        return writeAheadLog.appendScore(studentId, examId, score)
+                .thenRunAsync(() -> applyScore(studentId, examId, score), executor)
+                .whenComplete((result, error) -> endCommit(commit));
+    }
+
+    private void applyScore(String studentId, String examId, float score) {
+        List<Answer> answers = getSubmission(studentId, examId);
+        if (answers == null)
+            return;
+        answers.forEach(answer -> answer.setTotalScore(score));
+        version.incrementAndGet();
+    }
+
+    public GradingEngine.GradingJob autoGrade(Exam exam, GradingEngine.ProgressListener listener) {
+        GradingEngine.GradingJob job = gradingEngine.gradeAll(submissions.grading(exam.getExamId()), listener,
+                (result, apply) -> commitScores(exam.getExamId(), result, apply));
+        job.getResult().thenRun(version::incrementAndGet);
+        return job;
+    }
+
+    private void commitScores(String examId, GradingEngine.GradingResult result, Runnable apply) {
+        long commit = beginCommit();
+        try {
+            List<CompletableFuture<Void>> writes = new ArrayList<>(result.size());
+            for (int i = 0; i < result.size(); i++) {
+                writes.add(writeAheadLog.appendScore(result.getStudentId(i), examId, result.getScore(i)));
+            }
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+            apply.run();
+        } catch (CompletionException e) {
+            Events.warn("grading.save_failed", "examId", examId, "error", e.getMessage());
+            throw e;
+        } finally {
+            endCommit(commit);
+        }
+    }
+
+    private synchronized void writeSnapshot() {
+        long position = committedPosition();
+        if (position == lastSnapshotPosition)
+            return;
+        Snapshot snapshot = Snapshot.capture(position, exams, submissions, keyLogs);
+
+        try {
+            writeAheadLog.rollover().join();
+            snapshot.writeTo(snapshotFile);
+            lastSnapshotPosition = position;
+        } catch (IOException | CompletionException e) {
+            Events.warn("snapshot.write_failed", "file", snapshotFile, "error", e.getMessage());
+            return;
+        }
+
+        try {
+            writeAheadLog.deleteSegmentsBefore(position);
+        } catch (IOException e) {
+            Events.warn("wal.cleanup_failed", "directory", walDir, "error", e.getMessage());
+        }
+    }
+
+    private void writeMetrics() {
+        try {
+            Metrics.get().writeTo(metricsFile);
+        } catch (IOException e) {
+            Events.warn("metrics.write_failed", "file", metricsFile, "error", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        snapshotScheduler.shutdown();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.close();
+        sessions.values().forEach(ExamSession::endSession);
+        attemptJournals.forEach(journal -> closeAttemptJournal(journal, false));
+        autosaveScheduler.shutdown();
+
+        if (writeAheadLog != null) {
+            writeSnapshot();
+            try {
+                writeAheadLog.close();
+            } catch (IOException e) {
+                Events.warn("wal.close_failed", "directory", walDir, "error", e.getMessage());
+            }
+        }
+        writeMetrics();
+        gauges.forEach(Metrics.get()::unregisterGauge);
+
+        if (eventLog != null) {
+            Events.uninstall(eventLog);
+            try {
+                eventLog.close();
+            } catch (IOException e) {
+                Events.warn("events.close_failed", "file", eventLogFile, "error", e.getMessage());
+            }
+        }
+    }
+}
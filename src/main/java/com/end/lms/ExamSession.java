@@ -1,41 +1,51 @@
 package com.end.lms;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ExamSession {
-    private boolean isActive;
+    private final String examId;
+    private volatile boolean isActive;
     private final Map<String, ExamKeyLogger> studentKeyLoggers;
-    private final List<String> activeStudentIds;
+    private final Set<String> activeStudentIds;
 
-    public ExamSession() {
-        this.studentKeyLoggers = new HashMap<>();
-        this.activeStudentIds = new ArrayList<>();
+    public ExamSession(String examId) {
+        this.examId = examId;
+        this.studentKeyLoggers = new ConcurrentHashMap<>();
+        this.activeStudentIds = ConcurrentHashMap.newKeySet();
         this.isActive = false;
     }
 
     public void startSession() {
-        LocalDateTime startTime = LocalDateTime.now();
         this.isActive = true;
-        System.out.println("Exam session started at: " + startTime);
+        Events.info("session.started", "examId", examId);
     }
 
     public void endSession() {
         this.isActive = false;
-
-        studentKeyLoggers.forEach((studentId, logger) -> System.out.println("Saving logs for student: " + studentId));
-        System.out.println("Exam session ended at: " + LocalDateTime.now());
+        Events.info("session.ended", "examId", examId, "students", studentKeyLoggers.size());
     }
 
-    public void addActiveStudent(String studentId) {
-        activeStudentIds.add(studentId);
-
+    public ExamKeyLogger addActiveStudent(String studentId) {
         ExamKeyLogger keyLogger = new ExamKeyLogger();
         studentKeyLoggers.put(studentId, keyLogger);
-        System.out.println("Student " + studentId + " added to session with keylogger");
+        activeStudentIds.add(studentId);
+        Events.info("session.student_joined", "examId", examId, "studentId", studentId);
+        return keyLogger;
+    }
+
+    public void removeActiveStudent(String studentId) {
+        activeStudentIds.remove(studentId);
+    }
+
+    public boolean isStudentActive(String studentId) {
+        return isActive && activeStudentIds.contains(studentId);
+    }
+
+    public int getActiveStudentCount() {
+        return activeStudentIds.size();
     }
 
     public ExamKeyLogger getKeyLogger(String studentId) {
@@ -46,10 +56,15 @@ public class ExamSession {
         ExamKeyLogger logger = studentKeyLoggers.get(studentId);
         if (logger != null) {
             List<KeyLogEntry> logs = logger.getCheatingLogs();
-            System.out.println("Retrieved " + logs.size() + " log entries for student " + studentId);
+            Events.info("session.logs_retrieved", "examId", examId, "studentId", studentId,
+                    "entries", logs.size(), "dropped", logger.getDroppedCount());
             return logs;
         }
-        return new ArrayList<>();
+        return List.of();
+    }
+
+    public String getExamId() {
+        return examId;
     }
 
     public boolean isActive() {
@@ -0,0 +1,85 @@
+package com.end.lms;
+
+import java.util.Arrays;
+
+public class GradeStatistics {
+    public static final int BUCKETS = 100;
+
+    private final float maxScore;
+    private final long[] buckets;
+    private long count;
+    private double mean;
+    private double m2;
+
+    public record Summary(long count, double mean, double standardDeviation, float maxScore, long[] histogram) {
+        public double bucketWidth() {
+            return (double) maxScore / histogram.length;
+        }
+
+        public double percentile(double percentile) {
+            if (count == 0)
+                return Double.NaN;
+            double rank = Math.max(1, Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                long inBucket = histogram[i];
+                if (seen + inBucket >= rank) {
+                    double fraction = (rank - seen) / inBucket;
+                    return Math.min(maxScore, (i + fraction) * bucketWidth());
+                }
+                seen += inBucket;
+            }
+            return maxScore;
+        }
+
+        public double median() {
+            return percentile(50);
+        }
+    }
+
+    public GradeStatistics(float maxScore) {
+        this.maxScore = maxScore > 0 ? maxScore : BUCKETS;
+        this.buckets = new long[BUCKETS];
+    }
+
+    public GradeStatistics(GradeStatistics source) {
+        this.maxScore = source.maxScore;
+        this.buckets = source.buckets.clone();
+        this.count = source.count;
+        this.mean = source.mean;
+        this.m2 = source.m2;
+    }
+
+    public void add(float score) {
+        count++;
+        double delta = score - mean;
+        mean += delta / count;
+        m2 += delta * (score - mean);
+        buckets[bucketOf(score)]++;
+    }
+
+    public void remove(float score) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            Arrays.fill(buckets, 0);
+            return;
+        }
+        double delta = score - mean;
+        mean -= delta / (count - 1);
+        m2 = Math.max(0, m2 - delta * (score - mean));
+        count--;
+        buckets[bucketOf(score)]--;
+    }
+
+    public Summary summary() {
+        double variance = count > 1 ? m2 / (count - 1) : 0;
+        return new Summary(count, count == 0 ? Double.NaN : mean, Math.sqrt(variance), maxScore, buckets.clone());
+    }
+
+    private int bucketOf(float score) {
+        int bucket = (int) (score / maxScore * BUCKETS);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+}
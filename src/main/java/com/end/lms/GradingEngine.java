@@ -0,0 +1,228 @@
+package com.end.lms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GradingEngine {
+    private static final int CHUNK_SIZE = 256;
+
+    private final ForkJoinPool pool;
+
+    public GradingEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GradingEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public interface ProgressListener {
+        void onProgress(int graded, int total);
+    }
+
+    public interface Gradable {
+        int size();
+
+        String studentIdAt(int index);
+
+        int answerCountAt(int index);
+
+        float score(int index);
+
+        void applyScores(float[] scores);
+    }
+
+    public interface ScoreCommitter {
+        void commit(GradingResult scores, Runnable apply);
+    }
+
+    public GradingJob gradeAll(Exam exam, Map<String, List<Answer>> submissions, ProgressListener listener) {
+        return gradeAll(new AnswerLists(exam, submissions), listener);
+    }
+
+    public GradingJob gradeAll(Gradable submissions, ProgressListener listener) {
+        return gradeAll(submissions, listener, null);
+    }
+
+    public GradingJob gradeAll(Gradable submissions, ProgressListener listener, ScoreCommitter committer) {
+        GradingJob job = new GradingJob(submissions, listener, committer);
+        pool.execute(job::run);
+        return job;
+    }
+
+    private static class AnswerLists implements Gradable {
+        private final Exam exam;
+        private final String[] studentIds;
+        private final List<List<Answer>> answers;
+
+        AnswerLists(Exam exam, Map<String, List<Answer>> submissions) {
+            List<Map.Entry<String, List<Answer>>> entries = new ArrayList<>(submissions.entrySet());
+            this.exam = exam;
+            this.studentIds = new String[entries.size()];
+            this.answers = new ArrayList<>(entries.size());
+            for (int i = 0; i < studentIds.length; i++) {
+                studentIds[i] = entries.get(i).getKey();
+                answers.add(entries.get(i).getValue());
+            }
+        }
+
+        @Override
+        public int size() {
+            return studentIds.length;
+        }
+
+        @Override
+        public String studentIdAt(int index) {
+            return studentIds[index];
+        }
+
+        @Override
+        public int answerCountAt(int index) {
+            List<Answer> studentAnswers = answers.get(index);
+            return studentAnswers == null ? 0 : studentAnswers.size();
+        }
+
+        @Override
+        public float score(int index) {
+            return exam.calculateScore(answers.get(index));
+        }
+
+        @Override
+        public void applyScores(float[] scores) {
+            for (int i = 0; i < scores.length; i++) {
+                List<Answer> studentAnswers = answers.get(i);
+                if (studentAnswers == null)
+                    continue;
+                for (int j = 0, n = studentAnswers.size(); j < n; j++) {
+                    studentAnswers.get(j).setTotalScore(scores[i]);
+                }
+            }
+        }
+    }
+
+    public static class GradingJob {
+        private final Gradable submissions;
+        private final float[] scores;
+        private final ProgressListener listener;
+        private final ScoreCommitter committer;
+        private final AtomicInteger graded = new AtomicInteger();
+        private final CompletableFuture<GradingResult> result = new CompletableFuture<>();
+        private volatile boolean cancelled;
+
+        private GradingJob(Gradable submissions, ProgressListener listener, ScoreCommitter committer) {
+            this.submissions = submissions;
+            this.scores = new float[submissions.size()];
+            this.listener = listener;
+            this.committer = committer;
+        }
+
+        private void run() {
+            long start = System.nanoTime();
+            try {
+                new ScoreTask(0, scores.length).invoke();
+                if (cancelled) {
+                    result.completeExceptionally(new CancellationException("Grading cancelled"));
+                    return;
+                }
+                GradingResult graded = new GradingResult(studentIds(), scores);
+                if (committer != null) {
+                    committer.commit(graded, () -> submissions.applyScores(scores));
+                } else {
+                    submissions.applyScores(scores);
+                }
+                Metrics.get().recordGrading(countAnswers(), System.nanoTime() - start);
+                result.complete(graded);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private String[] studentIds() {
+            String[] studentIds = new String[scores.length];
+            for (int i = 0; i < studentIds.length; i++) {
+                studentIds[i] = submissions.studentIdAt(i);
+            }
+            return studentIds;
+        }
+
+        private int countAnswers() {
+            int count = 0;
+            for (int i = 0; i < scores.length; i++) {
+                count += submissions.answerCountAt(i);
+            }
+            return count;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public CompletableFuture<GradingResult> getResult() {
+            return result;
+        }
+
+        private class ScoreTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            ScoreTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (cancelled)
+                    return;
+
+                if (to - from > CHUNK_SIZE) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new ScoreTask(from, mid), new ScoreTask(mid, to));
+                    return;
+                }
+
+                for (int i = from; i < to; i++) {
+                    scores[i] = submissions.score(i);
+                }
+                int done = graded.addAndGet(to - from);
+                if (listener != null) {
+                    listener.onProgress(done, scores.length);
+                }
+            }
+        }
+    }
+
+    public static class GradingResult {
+        private final String[] studentIds;
+        private final float[] scores;
+
+        private GradingResult(String[] studentIds, float[] scores) {
+            this.studentIds = studentIds;
+            this.scores = scores;
+        }
+
+        public int size() {
+            return studentIds.length;
+        }
+
+        public String getStudentId(int index) {
+            return studentIds[index];
+        }
+
+        public float getScore(int index) {
+            return scores[index];
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.end.lms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class ItemAnalysis {
+    private final long submissions;
+    private final double meanScore;
+    private final List<Item> items;
+
+    public record Item(Question question, long responses, long correct, double difficulty, double discrimination,
+            long[] optionCounts, long otherResponses) {
+    }
+
+    private ItemAnalysis(long submissions, double meanScore, List<Item> items) {
+        this.submissions = submissions;
+        this.meanScore = meanScore;
+        this.items = items;
+    }
+
+    public static ItemAnalysis empty() {
+        return new ItemAnalysis(0, Double.NaN, List.of());
+    }
+
+    public long getSubmissions() {
+        return submissions;
+    }
+
+    public double getMeanScore() {
+        return meanScore;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    static ItemAnalysis compute(AnswerKey key, int rows, int[] starts, int[] lengths, short[] slots, byte[] choices,
+            IntFunction<String[]> overflow) {
+        int itemCount = key == null ? 0 : key.size();
+        if (itemCount == 0 || rows == 0)
+            return empty();
+
+        int[] points = new int[itemCount];
+        int[] optionCounts = new int[itemCount];
+        int maxOptions = 0;
+        for (int slot = 0; slot < itemCount; slot++) {
+            points[slot] = (int) key.pointsAt(slot);
+            optionCounts[slot] = key.questionAt(slot).getOptions().size();
+            maxOptions = Math.max(maxOptions, optionCounts[slot]);
+        }
+        int stride = maxOptions + 1;
+
+        long[] chosen = new long[itemCount * stride];
+        long[] responses = new long[itemCount];
+        long[] correct = new long[itemCount];
+        long[] correctTotals = new long[itemCount];
+        int[] rowCorrect = new int[itemCount];
+        int[] rowAnswered = new int[itemCount];
+        long sumTotal = 0;
+        long sumTotalSquares = 0;
+
+        for (int row = 0; row < rows; row++) {
+            Arrays.fill(rowCorrect, 0);
+            Arrays.fill(rowAnswered, 0);
+
+            for (int index = starts[row], end = index + lengths[row]; index < end; index++) {
+                int slot = slots[index];
+                int choice = choices[index];
+                String content = null;
+                if (slot < 0 || choice == 0) {
+                    String[] values = overflow.apply(index);
+                    if (slot < 0) {
+                        slot = key.slotOf(values[0]);
+                        if (slot < 0)
+                            continue;
+                    }
+                    content = values[1];
+                }
+
+                int option = choice - 'A';
+                chosen[slot * stride + (option >= 0 && option < optionCounts[slot] ? option : maxOptions)]++;
+                rowAnswered[slot] = 1;
+                boolean isCorrect = choice != 0 ? key.isCorrect(slot, (char) choice) : key.isCorrect(slot, content);
+                rowCorrect[slot] = isCorrect ? 1 : 0;
+            }
+
+            int total = 0;
+            for (int slot = 0; slot < itemCount; slot++) {
+                total += rowCorrect[slot] * points[slot];
+            }
+            for (int slot = 0; slot < itemCount; slot++) {
+                responses[slot] += rowAnswered[slot];
+                correct[slot] += rowCorrect[slot];
+                correctTotals[slot] += rowCorrect[slot] * total;
+            }
+            sumTotal += total;
+            sumTotalSquares += (long) total * total;
+        }
+
+        List<Item> items = new ArrayList<>(itemCount);
+        for (int slot = 0; slot < itemCount; slot++) {
+            long[] optionCountsOf = Arrays.copyOfRange(chosen, slot * stride, slot * stride + optionCounts[slot]);
+            items.add(new Item(key.questionAt(slot), responses[slot], correct[slot], (double) correct[slot] / rows,
+                    discrimination(rows, points[slot], correct[slot], correctTotals[slot], sumTotal, sumTotalSquares),
+                    optionCountsOf, chosen[slot * stride + maxOptions]));
+        }
+        return new ItemAnalysis(rows, (double) sumTotal / rows, List.copyOf(items));
+    }
+
+    private static double discrimination(long n, int points, long correct, long correctTotal, long sumTotal,
+            long sumTotalSquares) {
+        double sumItem = correct;
+        double sumRest = sumTotal - (double) points * correct;
+        double sumProduct = correctTotal - (double) points * correct;
+        double sumRestSquares = sumTotalSquares - 2.0 * points * correctTotal + (double) points * points * correct;
+
+        double covariance = n * sumProduct - sumItem * sumRest;
+        double itemVariance = n * sumItem - sumItem * sumItem;
+        double restVariance = n * sumRestSquares - sumRest * sumRest;
+        if (itemVariance <= 0 || restVariance <= 0)
+            return Double.NaN;
+        return covariance / Math.sqrt(itemVariance * restVariance);
+    }
+}
@@ -0,0 +1,23 @@
+package com.end.lms;
+
+public enum KeyAction {
+    COPY("Pressed Ctrl+C"),
+    PASTE("Pressed Ctrl+V"),
+    CTRL_TAB("Pressed Ctrl+Tab"),
+    CTRL_WIN("Pressed Ctrl+Win"),
+    ALT_TAB("Pressed Alt+Tab"),
+    ALT_F4("Pressed Alt+F4"),
+    WIN("Pressed Win"),
+    PRINT_SCREEN("Pressed PrtSc"),
+    SWITCHING_WINDOW("Switching Window");
+
+    private final String description;
+
+    KeyAction(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
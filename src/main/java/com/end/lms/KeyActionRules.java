@@ -0,0 +1,164 @@
+package com.end.lms;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class KeyActionRules {
+    public static final int SHIFT = 1;
+    public static final int CTRL = 2;
+    public static final int ALT = 4;
+    public static final int META = 8;
+
+    private static final int MODIFIER_COMBINATIONS = 16;
+    private static final KeyAction[] ACTIONS = KeyAction.values();
+    private static final String[] KEY_NAMES = keyNames();
+    private static final Map<String, Integer> KEY_INDEXES = keyIndexes();
+    private static final int KEY_COUNT = KEY_NAMES.length;
+
+    private static final String DEFAULT_RULES = String.join("\n",
+            "Ctrl+C = COPY",
+            "Ctrl+V = PASTE",
+            "Ctrl+TAB = CTRL_TAB",
+            "Ctrl+WINDOWS = CTRL_WIN",
+            "Alt+TAB = ALT_TAB",
+            "Alt+F4 = ALT_F4",
+            "WINDOWS = WIN",
+            "PRINTSCREEN = PRINT_SCREEN");
+
+    private static final KeyActionRules DEFAULTS = parse(DEFAULT_RULES);
+
+    private final byte[] table;
+
+    private KeyActionRules(byte[] table) {
+        this.table = table;
+    }
+
+    private static String[] keyNames() {
+        List<String> names = new ArrayList<>(List.of(
+                "ENTER", "BACK_SPACE", "TAB", "ESCAPE", "SPACE", "PAGE_UP", "PAGE_DOWN", "END", "HOME",
+                "LEFT", "UP", "RIGHT", "DOWN", "INSERT", "DELETE", "PRINTSCREEN", "PAUSE", "CAPS",
+                "NUM_LOCK", "SCROLL_LOCK", "WINDOWS", "CONTEXT_MENU", "COMMAND", "ALT_GRAPH", "HELP",
+                "COMMA", "MINUS", "PERIOD", "SLASH", "SEMICOLON", "EQUALS", "OPEN_BRACKET", "BACK_SLASH",
+                "CLOSE_BRACKET", "BACK_QUOTE", "QUOTE", "CUT", "COPY", "PASTE", "UNDO", "FIND"));
+        for (char c = 'A'; c <= 'Z'; c++) {
+            names.add(String.valueOf(c));
+        }
+        for (int i = 0; i <= 9; i++) {
+            names.add("DIGIT" + i);
+            names.add("NUMPAD" + i);
+        }
+        for (int i = 1; i <= 24; i++) {
+            names.add("F" + i);
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private static Map<String, Integer> keyIndexes() {
+        Map<String, Integer> indexes = new HashMap<>(KEY_NAMES.length * 2);
+        for (int i = 0; i < KEY_NAMES.length; i++) {
+            indexes.put(KEY_NAMES[i], i);
+        }
+        return indexes;
+    }
+
+    public static KeyActionRules defaults() {
+        return DEFAULTS;
+    }
+
+    public static KeyActionRules load(Path file) throws IOException {
+        return parse(Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    public static KeyActionRules parse(String rules) {
+        byte[] table = new byte[MODIFIER_COMBINATIONS * KEY_COUNT];
+        String[] lines = rules.split("\\R");
+
+        for (int lineNumber = 1; lineNumber <= lines.length; lineNumber++) {
+            String line = lines[lineNumber - 1];
+            int comment = line.indexOf('#');
+            if (comment >= 0)
+                line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+
+            int equals = line.indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected <keys> = <action>");
+
+            KeyAction action;
+            try {
+                action = KeyAction.valueOf(line.substring(equals + 1).trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown action in '" + line + "'");
+            }
+
+            int modifiers = 0;
+            int key = -1;
+            for (String part : line.substring(0, equals).split("\\+")) {
+                String token = part.trim();
+                int modifier = modifierOf(token);
+                if (modifier != 0) {
+                    modifiers |= modifier;
+                } else if (key < 0) {
+                    key = keyIndexOf(token);
+                    if (key < 0)
+                        throw new IllegalArgumentException("Line " + lineNumber + ": unknown key '" + token + "'");
+                } else {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": more than one key in '" + line + "'");
+                }
+            }
+            if (key < 0)
+                throw new IllegalArgumentException("Line " + lineNumber + ": no key in '" + line + "'");
+
+            for (int mask = 0; mask < MODIFIER_COMBINATIONS; mask++) {
+                int index = mask * KEY_COUNT + key;
+                if ((mask & modifiers) == modifiers && table[index] == 0) {
+                    table[index] = (byte) (action.ordinal() + 1);
+                }
+            }
+        }
+        return new KeyActionRules(table);
+    }
+
+    private static int modifierOf(String token) {
+        switch (token.toUpperCase()) {
+            case "SHIFT":
+                return SHIFT;
+            case "CTRL":
+            case "CONTROL":
+                return CTRL;
+            case "ALT":
+                return ALT;
+            case "META":
+            case "CMD":
+                return META;
+            default:
+                return 0;
+        }
+    }
+
+    public static int keyIndexOf(String keyName) {
+        String name = keyName.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+        if (name.length() == 1 && name.charAt(0) >= '0' && name.charAt(0) <= '9')
+            name = "DIGIT" + name;
+        Integer index = KEY_INDEXES.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public static int modifiers(boolean shift, boolean ctrl, boolean alt, boolean meta) {
+        return (shift ? SHIFT : 0) | (ctrl ? CTRL : 0) | (alt ? ALT : 0) | (meta ? META : 0);
+    }
+
+    public KeyAction classify(int keyIndex, int modifiers) {
+        int action = table[modifiers * KEY_COUNT + keyIndex];
+        return action == 0 ? null : ACTIONS[action - 1];
+    }
+}
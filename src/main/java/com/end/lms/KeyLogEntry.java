@@ -1,18 +1,36 @@
 package com.end.lms;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 public class KeyLogEntry {
     private String action;
-    private LocalDateTime timestamp;
+    private long timestampMillis;
 
     public KeyLogEntry(String action) {
+        this(action, System.currentTimeMillis());
+    }
+
+    public KeyLogEntry(String action, long timestampMillis) {
         this.action = action;
-        this.timestamp = LocalDateTime.now();
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
     }
 
     @Override
     public String toString() {
-        return String.format("[%s] %s", timestamp, action);
+        return String.format("[%s] %s", getTimestamp(), action);
     }
 }
@@ -0,0 +1,109 @@
+package com.end.lms;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public class KeyLogRepository {
+    private final ConcurrentSkipListMap<LogKey, List<KeyLogEntry>> logs = new ConcurrentSkipListMap<>();
+
+    public interface LogConsumer {
+        void accept(String studentId, String examId, List<KeyLogEntry> logs);
+    }
+
+    public void put(String studentId, String examId, List<KeyLogEntry> entries) {
+        logs.put(LogKey.of(examId, studentId), entries);
+    }
+
+    public List<KeyLogEntry> get(String studentId, String examId) {
+        int exam = Symbols.lookup(examId);
+        int student = Symbols.lookup(studentId);
+        if (exam == Symbols.NONE || student == Symbols.NONE)
+            return null;
+        return logs.get(new LogKey(exam, student));
+    }
+
+    public Map<String, List<KeyLogEntry>> forExam(String examId) {
+        int exam = Symbols.lookup(examId);
+        if (exam == Symbols.NONE)
+            return Map.of();
+        return new ExamView(exam, logs.subMap(LogKey.first(exam), true, LogKey.last(exam), true));
+    }
+
+    public void forEachInExam(String examId, LogConsumer consumer) {
+        int exam = Symbols.lookup(examId);
+        if (exam == Symbols.NONE)
+            return;
+        logs.subMap(LogKey.first(exam), true, LogKey.last(exam), true)
+                .forEach((key, entries) -> consumer.accept(key.studentId(), examId, entries));
+    }
+
+    public int size() {
+        return logs.size();
+    }
+
+    public void forEach(LogConsumer consumer) {
+        logs.forEach((key, entries) -> consumer.accept(key.studentId(), key.examId(), entries));
+    }
+
+    public KeyLogRepository copy() {
+        KeyLogRepository copy = new KeyLogRepository();
+        copy.logs.putAll(logs);
+        return copy;
+    }
+
+    private static class ExamView extends AbstractMap<String, List<KeyLogEntry>> {
+        private final int exam;
+        private final NavigableMap<LogKey, List<KeyLogEntry>> range;
+
+        ExamView(int exam, NavigableMap<LogKey, List<KeyLogEntry>> range) {
+            this.exam = exam;
+            this.range = range;
+        }
+
+        @Override
+        public Set<Entry<String, List<KeyLogEntry>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, List<KeyLogEntry>>> iterator() {
+                    Iterator<Entry<LogKey, List<KeyLogEntry>>> entries = range.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, List<KeyLogEntry>> next() {
+                            Entry<LogKey, List<KeyLogEntry>> entry = entries.next();
+                            return new SimpleImmutableEntry<>(entry.getKey().studentId(), entry.getValue());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return range.size();
+                }
+            };
+        }
+
+        @Override
+        public List<KeyLogEntry> get(Object studentId) {
+            if (!(studentId instanceof String id))
+                return null;
+            int student = Symbols.lookup(id);
+            return student == Symbols.NONE ? null : range.get(new LogKey(exam, student));
+        }
+
+        @Override
+        public boolean containsKey(Object studentId) {
+            return get(studentId) != null;
+        }
+    }
+}
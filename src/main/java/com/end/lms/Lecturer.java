@@ -1,7 +1,15 @@
 package com.end.lms;
 
 public class Lecturer extends User {
-    public Lecturer(String userId, String username, String password) {
-        super(userId, username, password);
+    private Lecturer(String userId, String username, String passwordHash) {
+        super(userId, username, passwordHash);
+    }
+
+    public static Lecturer withPassword(String userId, String username, String password) {
+        return new Lecturer(userId, username, PasswordHash.hash(password));
+    }
+
+    public static Lecturer withPasswordHash(String userId, String username, String passwordHash) {
+        return new Lecturer(userId, username, passwordHash);
     }
 }
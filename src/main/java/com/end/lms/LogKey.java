@@ -0,0 +1,29 @@
+package com.end.lms;
+
+public record LogKey(int exam, int student) implements Comparable<LogKey> {
+    public static LogKey of(String examId, String studentId) {
+        return new LogKey(Symbols.intern(examId), Symbols.intern(studentId));
+    }
+
+    static LogKey first(int exam) {
+        return new LogKey(exam, Integer.MIN_VALUE);
+    }
+
+    static LogKey last(int exam) {
+        return new LogKey(exam, Integer.MAX_VALUE);
+    }
+
+    public String examId() {
+        return Symbols.name(exam);
+    }
+
+    public String studentId() {
+        return Symbols.name(student);
+    }
+
+    @Override
+    public int compareTo(LogKey other) {
+        int byExam = Integer.compare(exam, other.exam);
+        return byExam != 0 ? byExam : Integer.compare(student, other.student);
+    }
+}
@@ -0,0 +1,297 @@
+package com.end.lms;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public final class Metrics implements MetricsMXBean {
+    public static final String ACTIVE_SESSIONS = "activeSessions";
+    public static final String ACTIVE_STUDENTS = "activeStudents";
+    public static final String STORED_EXAMS = "storedExams";
+    public static final String STORED_SUBMISSIONS = "storedSubmissions";
+    public static final String STORED_LOG_GROUPS = "storedLogGroups";
+    public static final String SYMBOLS = "symbols";
+
+    private static final String OBJECT_NAME = "com.end.lms:type=Metrics";
+    private static final Metrics INSTANCE = new Metrics();
+    private static final long MIN_RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder submissions = new LongAdder();
+    private final LatencyHistogram submitLatency = new LatencyHistogram();
+    private final LongAdder gradingJobs = new LongAdder();
+    private final LongAdder gradedAnswers = new LongAdder();
+    private final LongAdder gradingNanos = new LongAdder();
+    private final LongAdder keyLogEvents = new LongAdder();
+    private final LongAdder droppedKeyLogEvents = new LongAdder();
+    private final LongAdder suppressedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder cachedLogins = new LongAdder();
+    private final LongAdder failedLogins = new LongAdder();
+    private final LongAdder rejectedLogins = new LongAdder();
+    private final LatencyHistogram loginLatency = new LatencyHistogram();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private long lastSampleNanos = System.nanoTime();
+    private long lastSampleKeyLogEvents;
+    private double keyLogEventsPerSecond;
+
+    private Metrics() {
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            Events.warn("metrics.jmx_failed", "error", e.getMessage());
+        }
+    }
+
+    public void recordSubmit(long nanos) {
+        submissions.increment();
+        submitLatency.record(nanos);
+    }
+
+    public void recordGrading(int answers, long nanos) {
+        gradingJobs.increment();
+        gradedAnswers.add(answers);
+        gradingNanos.add(nanos);
+    }
+
+    public void recordKeyLogEvent() {
+        keyLogEvents.increment();
+    }
+
+    public void recordDroppedKeyLogEvent() {
+        droppedKeyLogEvents.increment();
+    }
+
+    public void recordSuppressedEvent() {
+        suppressedEvents.increment();
+    }
+
+    public void recordDroppedEvent() {
+        droppedEvents.increment();
+    }
+
+    public void recordLogin(boolean cached, long nanos) {
+        logins.increment();
+        if (cached) {
+            cachedLogins.increment();
+        }
+        loginLatency.record(nanos);
+    }
+
+    public void recordFailedLogin() {
+        failedLogins.increment();
+    }
+
+    public void recordRejectedLogin() {
+        rejectedLogins.increment();
+    }
+
+    public void registerGauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public void unregisterGauge(String name, LongSupplier gauge) {
+        gauges.remove(name, gauge);
+    }
+
+    private long gauge(String name) {
+        LongSupplier gauge = gauges.get(name);
+        return gauge == null ? 0 : gauge.getAsLong();
+    }
+
+    @Override
+    public long getSubmissions() {
+        return submissions.sum();
+    }
+
+    @Override
+    public double getSubmitLatencyMeanMicros() {
+        return submitLatency.getMean() / 1000.0;
+    }
+
+    @Override
+    public long getSubmitLatencyP50Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(submitLatency.getPercentile(50));
+    }
+
+    @Override
+    public long getSubmitLatencyP99Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(submitLatency.getPercentile(99));
+    }
+
+    @Override
+    public long getSubmitLatencyMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(submitLatency.getMax());
+    }
+
+    @Override
+    public long getGradingJobs() {
+        return gradingJobs.sum();
+    }
+
+    @Override
+    public long getGradedAnswers() {
+        return gradedAnswers.sum();
+    }
+
+    @Override
+    public double getGradingAnswersPerSecond() {
+        long nanos = gradingNanos.sum();
+        return nanos == 0 ? 0 : gradedAnswers.sum() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public long getKeyLogEvents() {
+        return keyLogEvents.sum();
+    }
+
+    @Override
+    public synchronized double getKeyLogEventsPerSecond() {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        if (elapsed >= MIN_RATE_WINDOW_NANOS) {
+            long events = keyLogEvents.sum();
+            keyLogEventsPerSecond = (events - lastSampleKeyLogEvents) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            lastSampleNanos = now;
+            lastSampleKeyLogEvents = events;
+        }
+        return keyLogEventsPerSecond;
+    }
+
+    @Override
+    public long getDroppedKeyLogEvents() {
+        return droppedKeyLogEvents.sum();
+    }
+
+    @Override
+    public long getSuppressedEvents() {
+        return suppressedEvents.sum();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public long getLogins() {
+        return logins.sum();
+    }
+
+    @Override
+    public long getCachedLogins() {
+        return cachedLogins.sum();
+    }
+
+    @Override
+    public long getFailedLogins() {
+        return failedLogins.sum();
+    }
+
+    @Override
+    public long getRejectedLogins() {
+        return rejectedLogins.sum();
+    }
+
+    @Override
+    public long getLoginLatencyP99Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(loginLatency.getPercentile(99));
+    }
+
+    @Override
+    public long getActiveSessions() {
+        return gauge(ACTIVE_SESSIONS);
+    }
+
+    @Override
+    public long getActiveStudents() {
+        return gauge(ACTIVE_STUDENTS);
+    }
+
+    @Override
+    public long getStoredExams() {
+        return gauge(STORED_EXAMS);
+    }
+
+    @Override
+    public long getStoredSubmissions() {
+        return gauge(STORED_SUBMISSIONS);
+    }
+
+    @Override
+    public long getStoredLogGroups() {
+        return gauge(STORED_LOG_GROUPS);
+    }
+
+    @Override
+    public long getSymbols() {
+        return gauge(SYMBOLS);
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(896);
+        json.append("{\n");
+        field(json, "timestamp", '"' + Instant.now().toString() + '"');
+        field(json, "submissions", getSubmissions());
+        field(json, "submitLatencyMeanMicros", String.format(Locale.ROOT, "%.1f", getSubmitLatencyMeanMicros()));
+        field(json, "submitLatencyP50Micros", getSubmitLatencyP50Micros());
+        field(json, "submitLatencyP99Micros", getSubmitLatencyP99Micros());
+        field(json, "submitLatencyMaxMicros", getSubmitLatencyMaxMicros());
+        field(json, "gradingJobs", getGradingJobs());
+        field(json, "gradedAnswers", getGradedAnswers());
+        field(json, "gradingAnswersPerSecond", String.format(Locale.ROOT, "%.1f", getGradingAnswersPerSecond()));
+        field(json, "keyLogEvents", getKeyLogEvents());
+        field(json, "keyLogEventsPerSecond", String.format(Locale.ROOT, "%.2f", getKeyLogEventsPerSecond()));
+        field(json, "droppedKeyLogEvents", getDroppedKeyLogEvents());
+        field(json, "suppressedEvents", getSuppressedEvents());
+        field(json, "droppedEvents", getDroppedEvents());
+        field(json, "logins", getLogins());
+        field(json, "cachedLogins", getCachedLogins());
+        field(json, "failedLogins", getFailedLogins());
+        field(json, "rejectedLogins", getRejectedLogins());
+        field(json, "loginLatencyP99Micros", getLoginLatencyP99Micros());
+        field(json, ACTIVE_SESSIONS, getActiveSessions());
+        field(json, ACTIVE_STUDENTS, getActiveStudents());
+        field(json, STORED_EXAMS, getStoredExams());
+        field(json, STORED_SUBMISSIONS, getStoredSubmissions());
+        field(json, STORED_LOG_GROUPS, getStoredLogGroups());
+        field(json, SYMBOLS, getSymbols());
+        json.setLength(json.length() - 2);
+        return json.append("\n}\n").toString();
+    }
+
+    private static void field(StringBuilder json, String name, Object value) {
+        json.append("  \"").append(name).append("\": ").append(value).append(",\n");
+    }
+
+    public void writeTo(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, toJson(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
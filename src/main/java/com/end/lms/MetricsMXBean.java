@@ -0,0 +1,51 @@
+package com.end.lms;
+
+public interface MetricsMXBean {
+    long getSubmissions();
+
+    double getSubmitLatencyMeanMicros();
+
+    long getSubmitLatencyP50Micros();
+
+    long getSubmitLatencyP99Micros();
+
+    long getSubmitLatencyMaxMicros();
+
+    long getGradingJobs();
+
+    long getGradedAnswers();
+
+    double getGradingAnswersPerSecond();
+
+    long getKeyLogEvents();
+
+    double getKeyLogEventsPerSecond();
+
+    long getDroppedKeyLogEvents();
+
+    long getSuppressedEvents();
+
+    long getDroppedEvents();
+
+    long getLogins();
+
+    long getCachedLogins();
+
+    long getFailedLogins();
+
+    long getRejectedLogins();
+
+    long getLoginLatencyP99Micros();
+
+    long getActiveSessions();
+
+    long getActiveStudents();
+
+    long getStoredExams();
+
+    long getStoredSubmissions();
+
+    long getStoredLogGroups();
+
+    long getSymbols();
+}
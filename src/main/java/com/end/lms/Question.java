@@ -4,25 +4,29 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Question {
-    private String questionId;
+    private int questionId;
     private String content;
     private String type;
+    private int score;
     private List<String> options;
     private String correctAnswer;
+    private Exam exam;
 
     public Question(String questionId, String content, int score, String type) {
-        this.questionId = questionId;
+        this.questionId = Symbols.intern(questionId);
         this.content = content;
         this.type = type;
+        this.score = score;
         this.options = new ArrayList<>();
     }
 
     public void addOption(String option) {
         options.add(option);
+        changed();
     }
 
     public boolean validateAnswer(String answer) {
-        if (type.equals("MULTIPLE_CHOICE")) {
+        if (isMultipleChoice()) {
             return answer != null && answer.equals(correctAnswer);
         }
 
@@ -31,9 +35,41 @@ public class Question {
 
     public void setCorrectAnswer(String correctAnswer) {
         this.correctAnswer = correctAnswer;
+        changed();
+    }
+
+    void attachTo(Exam exam) {
+        this.exam = exam;
+    }
+
+    private void changed() {
+        Exam owner = exam;
+        if (owner != null) {
+            owner.questionChanged();
+        }
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getCorrectAnswer() {
+        return correctAnswer;
+    }
+
+    public boolean isMultipleChoice() {
+        return type.equals("MULTIPLE_CHOICE");
     }
 
     public String getQuestionId() {
+        return Symbols.name(questionId);
+    }
+
+    public int getQuestionSymbol() {
         return questionId;
     }
 
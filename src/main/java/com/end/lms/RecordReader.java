@@ -0,0 +1,355 @@
+package com.end.lms;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public abstract class RecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_CHARS = Integer.getInteger("lms.import.max.record.chars", 1 << 20);
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    protected long line = 1;
+
+    public record Record(long line, Map<String, Object> fields, String error) {
+        public String get(String name) {
+            Object value = fields.get(name);
+            if (value instanceof List<?> values)
+                return String.join("|", values.toArray(String[]::new));
+            return (String) value;
+        }
+
+        public List<String> getList(String name) {
+            Object value = fields.get(name);
+            if (value == null)
+                return List.of();
+            if (value instanceof String text)
+                return text.isBlank() ? List.of() : Arrays.asList(text.split("\\|"));
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>) value;
+            return values;
+        }
+    }
+
+    protected RecordReader(Reader in) {
+        this.in = in;
+    }
+
+    public static RecordReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (name.endsWith(".csv"))
+            return csv(reader);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson"))
+            return jsonLines(reader);
+        reader.close();
+        throw new IOException("Unsupported import format: " + file.getFileName());
+    }
+
+    public static RecordReader csv(Reader in) {
+        return new Csv(in);
+    }
+
+    public static RecordReader jsonLines(Reader in) {
+        return new JsonLines(in);
+    }
+
+    public abstract Record next() throws IOException;
+
+    protected final int read() throws IOException {
+        if (position == limit) {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0)
+                return -1;
+            position = 0;
+            limit = read;
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    protected final void unread(int c) {
+        if (c < 0)
+            return;
+        position--;
+        if (c == '\n') {
+            line--;
+        }
+    }
+
+    protected static void checkLength(StringBuilder text, long line) throws IOException {
+        if (text.length() > MAX_RECORD_CHARS)
+            throw new IOException("Line " + line + ": field is longer than " + MAX_RECORD_CHARS + " characters");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static class Csv extends RecordReader {
+        private final StringBuilder field = new StringBuilder();
+        private String[] header;
+
+        Csv(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public Record next() throws IOException {
+            if (header == null) {
+                List<String> names = readRow();
+                if (names == null)
+                    return null;
+                header = new String[names.size()];
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = names.get(i).trim().toLowerCase(Locale.ROOT);
+                }
+                if (header.length > 0 && header[0].startsWith("\uFEFF")) {
+                    header[0] = header[0].substring(1);
+                }
+            }
+
+            while (true) {
+                long start = line;
+                List<String> row = readRow();
+                if (row == null)
+                    return null;
+                if (row.size() == 1 && row.get(0).isBlank())
+                    continue;
+                if (row.size() != header.length)
+                    return new Record(start, Map.of(),
+                            "expected " + header.length + " columns but found " + row.size());
+
+                Map<String, Object> fields = new HashMap<>(header.length * 2);
+                for (int i = 0; i < header.length; i++) {
+                    fields.put(header[i], row.get(i));
+                }
+                return new Record(start, fields, null);
+            }
+        }
+
+        private List<String> readRow() throws IOException {
+            int c = read();
+            if (c < 0)
+                return null;
+
+            long start = line;
+            List<String> row = new ArrayList<>();
+            boolean quoted = false;
+            field.setLength(0);
+            while (true) {
+                if (quoted) {
+                    if (c < 0)
+                        throw new IOException("Line " + start + ": unterminated quoted field");
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            unread(next);
+                        }
+                    } else {
+                        field.append((char) c);
+                        checkLength(field, start);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c < 0) {
+                    row.add(field.toString());
+                    return row;
+                } else if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                    row.add(field.toString());
+                    return row;
+                } else {
+                    field.append((char) c);
+                    checkLength(field, start);
+                }
+                c = read();
+            }
+        }
+    }
+
+    private static class JsonLines extends RecordReader {
+        private final StringBuilder text = new StringBuilder();
+
+        JsonLines(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public Record next() throws IOException {
+            while (true) {
+                long start = line;
+                text.setLength(0);
+                boolean tooLong = false;
+                int c = read();
+                if (c < 0)
+                    return null;
+                while (c >= 0 && c != '\n') {
+                    if (text.length() <= MAX_RECORD_CHARS) {
+                        text.append((char) c);
+                    } else {
+                        tooLong = true;
+                    }
+                    c = read();
+                }
+
+                if (tooLong)
+                    return new Record(start, Map.of(), "record is longer than " + MAX_RECORD_CHARS + " characters");
+                if (text.toString().isBlank())
+                    continue;
+                try {
+                    return new Record(start, new JsonObjectParser(text).parse(), null);
+                } catch (IllegalArgumentException e) {
+                    return new Record(start, Map.of(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static class JsonObjectParser {
+        private final CharSequence text;
+        private int index;
+
+        JsonObjectParser(CharSequence text) {
+            this.text = text;
+        }
+
+        Map<String, Object> parse() {
+            Map<String, Object> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                index++;
+            } else {
+                do {
+                    String name = parseString().toLowerCase(Locale.ROOT);
+                    expect(':');
+                    fields.put(name, parseValue(true));
+                } while (consume(','));
+                expect('}');
+            }
+            if (peek() != 0)
+                throw new IllegalArgumentException("unexpected text after object at column " + (index + 1));
+            return fields;
+        }
+
+        private Object parseValue(boolean allowArray) {
+            char c = peek();
+            if (c == '"')
+                return parseString();
+            if (c == '[') {
+                if (!allowArray)
+                    throw new IllegalArgumentException("nested arrays are not supported");
+                index++;
+                List<String> values = new ArrayList<>();
+                if (peek() == ']') {
+                    index++;
+                    return values;
+                }
+                do {
+                    Object value = parseValue(false);
+                    values.add(value == null ? null : value.toString());
+                } while (consume(','));
+                expect(']');
+                return values;
+            }
+            if (c == '{')
+                throw new IllegalArgumentException("nested objects are not supported");
+
+            int start = index;
+            while (index < text.length() && ",]} \t\r".indexOf(text.charAt(index)) < 0) {
+                index++;
+            }
+            String literal = text.subSequence(start, index).toString();
+            if (literal.equals("null"))
+                return null;
+            if (literal.equals("true") || literal.equals("false") || isNumber(literal))
+                return literal;
+            throw new IllegalArgumentException("invalid value '" + literal + "' at column " + (start + 1));
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (index < text.length()) {
+                char c = text.charAt(index++);
+                if (c == '"')
+                    return value.toString();
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (index >= text.length())
+                    break;
+                char escaped = text.charAt(index++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 't' -> value.append('\t');
+                    case 'r' -> value.append('\r');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (index + 4 > text.length())
+                            throw new IllegalArgumentException("truncated unicode escape");
+                        value.append((char) Integer.parseInt(text.subSequence(index, index + 4).toString(), 16));
+                        index += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("unterminated string");
+        }
+
+        private static boolean isNumber(String literal) {
+            try {
+                Double.parseDouble(literal);
+                return !literal.isEmpty();
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private char peek() {
+            while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+            return index < text.length() ? text.charAt(index) : 0;
+        }
+
+        private boolean consume(char c) {
+            if (peek() != c)
+                return false;
+            index++;
+            return true;
+        }
+
+        private void expect(char c) {
+            if (!consume(c))
+                throw new IllegalArgumentException("expected '" + c + "' at column " + (index + 1));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.end.lms;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+public class ResultExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int ROW_BATCH = 1024;
+
+    private final SubmissionStore submissions;
+    private final KeyLogRepository keyLogs;
+
+    public ResultExporter(SubmissionStore submissions, KeyLogRepository keyLogs) {
+        this.submissions = submissions;
+        this.keyLogs = keyLogs;
+    }
+
+    public long exportGrades(Exam exam, Path file) throws IOException {
+        String examId = exam.getExamId();
+        float maxScore = exam.getAnswerKey().getMaxScore();
+        AnswerColumns columns = submissions.columnsFor(examId);
+
+        int[] students = new int[ROW_BATCH];
+        int[] answered = new int[ROW_BATCH];
+        float[] scores = new float[ROW_BATCH];
+        boolean[] graded = new boolean[ROW_BATCH];
+        long rows = 0;
+
+        try (CsvWriter out = new CsvWriter(file)) {
+            out.text("exam_id").comma().text("student_id").comma().text("answered").comma()
+                    .text("score").comma().text("max_score").comma().text("graded").endRow();
+            if (columns != null) {
+                int count;
+                while ((count = columns.readRows((int) rows, students, answered, scores, graded)) > 0) {
+                    for (int i = 0; i < count; i++) {
+                        out.text(examId).comma().text(Symbols.name(students[i])).comma().number(answered[i]).comma();
+                        if (graded[i]) {
+                            out.decimal(scores[i]);
+                        }
+                        out.comma().decimal(maxScore).comma().text(graded[i] ? "true" : "false").endRow();
+                    }
+                    rows += count;
+                }
+            }
+            out.commit();
+        }
+        return rows;
+    }
+
+    public long exportLogs(String examId, Path file) throws IOException {
+        long[] rows = new long[1];
+        StringBuilder timestamp = new StringBuilder(32);
+
+        try (CsvWriter out = new CsvWriter(file)) {
+            out.text("exam_id").comma().text("student_id").comma().text("timestamp").comma()
+                    .text("timestamp_millis").comma().text("action").endRow();
+            IOException[] failure = new IOException[1];
+            keyLogs.forEachInExam(examId, (studentId, id, logs) -> {
+                if (failure[0] != null)
+                    return;
+                try {
+                    writeLogs(out, examId, studentId, logs, timestamp);
+                    rows[0] += logs.size();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null)
+                throw failure[0];
+            out.commit();
+        }
+        return rows[0];
+    }
+
+    private static void writeLogs(CsvWriter out, String examId, String studentId, List<KeyLogEntry> logs,
+            StringBuilder timestamp) throws IOException {
+        for (int i = 0, n = logs.size(); i < n; i++) {
+            KeyLogEntry log = logs.get(i);
+            timestamp.setLength(0);
+            DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(log.getTimestampMillis()), timestamp);
+            out.text(examId).comma().text(studentId).comma().text(timestamp).comma()
+                    .number(log.getTimestampMillis()).comma().text(log.getAction()).endRow();
+        }
+    }
+
+    private static class CsvWriter implements Closeable {
+        private final Path file;
+        private final Path tmp;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final byte[] digits = new byte[20];
+        private boolean committed;
+
+        CsvWriter(Path file) throws IOException {
+            this.file = file;
+            this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }
+
+        CsvWriter text(CharSequence value) throws IOException {
+            if (value == null)
+                return this;
+            boolean quote = false;
+            for (int i = 0, n = value.length(); i < n && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (quote) {
+                put('"');
+            }
+            for (int i = 0, n = value.length(); i < n; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"') {
+                        put('"');
+                    }
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xC0 | c >> 6);
+                    put(0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    put(0xF0 | codePoint >> 18);
+                    put(0x80 | codePoint >> 12 & 0x3F);
+                    put(0x80 | codePoint >> 6 & 0x3F);
+                    put(0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    put('?');
+                } else {
+                    put(0xE0 | c >> 12);
+                    put(0x80 | c >> 6 & 0x3F);
+                    put(0x80 | c & 0x3F);
+                }
+            }
+            if (quote) {
+                put('"');
+            }
+            return this;
+        }
+
+        CsvWriter number(long value) throws IOException {
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            int length = 0;
+            do {
+                digits[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (length > 0) {
+                put(digits[--length]);
+            }
+            return this;
+        }
+
+        CsvWriter decimal(float value) throws IOException {
+            if (value == (long) value)
+                return number((long) value);
+            return text(Float.toString(value));
+        }
+
+        CsvWriter comma() throws IOException {
+            put(',');
+            return this;
+        }
+
+        CsvWriter endRow() throws IOException {
+            put('\n');
+            return this;
+        }
+
+        private void put(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void commit() throws IOException {
+            drain();
+            channel.force(false);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            if (committed) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.end.lms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+public final class RosterCache {
+    private static final int MAGIC = 0x4C4D5352;
+    private static final int VERSION = 1;
+    private static final int DIGEST_BYTES = 32;
+    private static final byte STUDENT = 0;
+    private static final byte LECTURER = 1;
+
+    private RosterCache() {
+    }
+
+    public static byte[] digest(InputStream source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = source.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+        }
+        return digest.digest();
+    }
+
+    public static List<User> read(Path file, byte[] sourceDigest) {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                return null;
+            byte[] digest = new byte[DIGEST_BYTES];
+            in.readFully(digest);
+            if (!MessageDigest.isEqual(digest, sourceDigest))
+                return null;
+
+            int count = in.readInt();
+            List<User> users = new ArrayList<>(Math.max(0, Math.min(count, 1 << 16)));
+            for (int i = 0; i < count; i++) {
+                byte role = in.readByte();
+                String userId = in.readUTF();
+                String username = in.readUTF();
+                String passwordHash = in.readUTF();
+                users.add(role == LECTURER ? Lecturer.withPasswordHash(userId, username, passwordHash)
+                        : Student.withPasswordHash(userId, username, passwordHash));
+            }
+            int checksum = (int) checked.getChecksum().getValue();
+            if (in.readInt() != checksum) {
+                Events.warn("roster.cache_corrupt", "file", file);
+                return null;
+            }
+            return users;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (EOFException e) {
+            Events.warn("roster.cache_corrupt", "file", file);
+            return null;
+        } catch (IOException e) {
+            Events.warn("roster.cache_unreadable", "file", file, "error", e.getMessage());
+            return null;
+        }
+    }
+
+    public static void write(Path file, byte[] sourceDigest, Collection<User> users) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)), new CRC32())) {
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(sourceDigest);
+            out.writeInt(users.size());
+            for (User user : users) {
+                out.writeByte(user instanceof Lecturer ? LECTURER : STUDENT);
+                out.writeUTF(user.getUserId());
+                out.writeUTF(user.getUsername());
+                out.writeUTF(user.getPasswordHash());
+            }
+            out.writeInt((int) checked.getChecksum().getValue());
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
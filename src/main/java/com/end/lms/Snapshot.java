@@ -0,0 +1,344 @@
+package com.end.lms;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class Snapshot {
+    private static final int MAGIC = 0x4C4D5353;
+    private static final int VERSION = 2;
+    private static final int LEGACY_LOG_KEY_VERSION = 1;
+    private static final int TRAILER_SIZE = 4;
+
+    private final long walPosition;
+    private final Map<String, Exam> exams;
+    private final SubmissionStore submissions;
+    private final KeyLogRepository keyLogs;
+
+    private Snapshot(long walPosition, Map<String, Exam> exams, SubmissionStore submissions,
+            KeyLogRepository keyLogs) {
+        this.walPosition = walPosition;
+        this.exams = exams;
+        this.submissions = submissions;
+        this.keyLogs = keyLogs;
+    }
+
+    public static Snapshot capture(long walPosition, Map<String, Exam> exams, SubmissionStore submissions,
+            KeyLogRepository keyLogs) {
+        return new Snapshot(walPosition, new HashMap<>(exams), submissions.copy(), keyLogs.copy());
+    }
+
+    public long getWalPosition() {
+        return walPosition;
+    }
+
+    public Map<String, Exam> getExams() {
+        return exams;
+    }
+
+    public SubmissionStore getSubmissions() {
+        return submissions;
+    }
+
+    public KeyLogRepository getKeyLogs() {
+        return keyLogs;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 256 * 1024), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(walPosition);
+            writeExams(out);
+            writeSubmissions(out);
+            writeLogs(out);
+
+            int checksum = (int) checked.getChecksum().getValue();
+            out.writeInt(checksum);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeExams(DataOutputStream out) throws IOException {
+        out.writeInt(exams.size());
+        for (Exam exam : exams.values()) {
+            writeString(out, exam.getExamId());
+            writeString(out, exam.getTitle());
+            out.writeBoolean(exam.isPublished());
+
+            List<Question> questions = exam.getQuestions();
+            out.writeInt(questions.size());
+            for (Question question : questions) {
+                writeString(out, question.getQuestionId());
+                writeString(out, question.getContent());
+                out.writeInt(question.getScore());
+                writeString(out, question.getType());
+                writeString(out, question.getCorrectAnswer());
+
+                List<String> options = question.getOptions();
+                out.writeInt(options.size());
+                for (String option : options) {
+                    writeString(out, option);
+                }
+            }
+        }
+    }
+
+    private void writeSubmissions(DataOutputStream out) throws IOException {
+        out.writeInt(submissions.size());
+        try {
+            submissions.forEach((studentId, examId, answers) -> {
+                try {
+                    writeSubmission(out, studentId, examId, answers);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeSubmission(DataOutputStream out, String studentId, String examId, List<Answer> answers)
+            throws IOException {
+        Exam exam = exams.get(examId);
+        AnswerKey key = exam == null ? null : exam.getAnswerKey();
+
+        writeString(out, studentId);
+        writeString(out, examId);
+        out.writeInt(answers.size());
+        for (Answer answer : answers) {
+            int slot = key == null ? -1 : key.slotOf(answer.getQuestionId());
+            out.writeInt(slot);
+            if (slot < 0) {
+                writeString(out, answer.getQuestionId());
+            }
+            writeString(out, answer.getContent());
+            out.writeBoolean(answer.isGraded());
+            out.writeFloat(answer.getTotalScore());
+        }
+    }
+
+    private void writeLogs(DataOutputStream out) throws IOException {
+        out.writeInt(keyLogs.size());
+        try {
+            keyLogs.forEach((studentId, examId, logs) -> {
+                try {
+                    writeString(out, studentId);
+                    writeString(out, examId);
+                    out.writeInt(logs.size());
+                    for (KeyLogEntry log : logs) {
+                        out.writeLong(log.getTimestampMillis());
+                        writeString(out, log.getAction());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static Snapshot load(Path file) throws IOException {
+        if (!Files.exists(file))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Snapshot too large to map: " + size + " bytes");
+            if (size < 16 + TRAILER_SIZE)
+                throw new IOException("Snapshot is truncated");
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodySize = (int) size - TRAILER_SIZE;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, bodySize));
+            if ((int) crc.getValue() != buffer.getInt(bodySize))
+                throw new IOException("Snapshot checksum mismatch");
+
+            return new Reader(buffer.limit(bodySize)).read();
+        }
+    }
+
+    private static class Reader {
+        private static final String[] ASCII = new String[128];
+
+        static {
+            for (int i = 0; i < ASCII.length; i++) {
+                ASCII[i] = String.valueOf((char) i);
+            }
+        }
+
+        private final ByteBuffer buffer;
+        private final Map<String, String> constants = new HashMap<>();
+        private byte[] scratch = new byte[256];
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Snapshot read() throws IOException {
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a snapshot file");
+            int version = buffer.getInt();
+            if (version != VERSION && version != LEGACY_LOG_KEY_VERSION)
+                throw new IOException("Unsupported snapshot version " + version);
+
+            long walPosition = buffer.getLong();
+            Map<String, Exam> exams = readExams();
+            SubmissionStore submissions = readSubmissions(exams);
+            KeyLogRepository keyLogs = readLogs(version);
+            return new Snapshot(walPosition, exams, submissions, keyLogs);
+        }
+
+        private Map<String, Exam> readExams() {
+            int examCount = buffer.getInt();
+            Map<String, Exam> exams = new HashMap<>(examCount * 2);
+            for (int i = 0; i < examCount; i++) {
+                Exam exam = new Exam(readString(), readString());
+                boolean published = buffer.get() != 0;
+
+                int questionCount = buffer.getInt();
+                for (int j = 0; j < questionCount; j++) {
+                    String questionId = readString();
+                    String content = readString();
+                    int score = buffer.getInt();
+                    Question question = new Question(questionId, content, score, readConstant());
+                    question.setCorrectAnswer(readConstant());
+
+                    int optionCount = buffer.getInt();
+                    for (int k = 0; k < optionCount; k++) {
+                        question.addOption(readString());
+                    }
+                    exam.addQuestion(question);
+                }
+
+                if (published) {
+                    exam.publish();
+                }
+                exams.put(exam.getExamId(), exam);
+            }
+            return exams;
+        }
+
+        private SubmissionStore readSubmissions(Map<String, Exam> exams) {
+            int submissionCount = buffer.getInt();
+            SubmissionStore submissions = new SubmissionStore(examId -> {
+                Exam exam = exams.get(examId);
+                return exam == null ? null : exam.getAnswerKey();
+            });
+            for (int i = 0; i < submissionCount; i++) {
+                String studentId = readConstant();
+                String examId = readConstant();
+                Exam exam = exams.get(examId);
+                AnswerKey key = exam == null ? null : exam.getAnswerKey();
+
+                int answerCount = buffer.getInt();
+                List<Answer> answers = new ArrayList<>(answerCount);
+                for (int j = 0; j < answerCount; j++) {
+                    int slot = buffer.getInt();
+                    String questionId = slot < 0 ? readConstant() : key.questionIdAt(slot);
+                    Answer answer = new Answer(studentId, examId, questionId, readConstant());
+                    boolean graded = buffer.get() != 0;
+                    float score = buffer.getFloat();
+                    if (graded) {
+                        answer.setTotalScore(score);
+                    }
+                    answers.add(answer);
+                }
+                submissions.put(studentId, examId, answers);
+            }
+            return submissions;
+        }
+
+        private KeyLogRepository readLogs(int version) {
+            int groupCount = buffer.getInt();
+            KeyLogRepository keyLogs = new KeyLogRepository();
+            for (int i = 0; i < groupCount; i++) {
+                String studentId;
+                String examId;
+                if (version == LEGACY_LOG_KEY_VERSION) {
+                    String key = readString();
+                    int separator = key.indexOf('_');
+                    studentId = key.substring(0, separator);
+                    examId = key.substring(separator + 1);
+                } else {
+                    studentId = readConstant();
+                    examId = readConstant();
+                }
+                int count = buffer.getInt();
+                List<KeyLogEntry> logs = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    long timestamp = buffer.getLong();
+                    logs.add(new KeyLogEntry(readConstant(), timestamp));
+                }
+                keyLogs.put(studentId, examId, logs);
+            }
+            return keyLogs;
+        }
+
+        private String readString() {
+            int length = buffer.getInt();
+            if (length < 0)
+                return null;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private String readConstant() {
+            int length = buffer.getInt(buffer.position());
+            if (length == 1) {
+                byte b = buffer.get(buffer.position() + 4);
+                if (b >= 0) {
+                    buffer.position(buffer.position() + 5);
+                    return ASCII[b];
+                }
+            }
+
+            String value = readString();
+            if (value == null)
+                return null;
+            String existing = constants.putIfAbsent(value, value);
+            return existing == null ? value : existing;
+        }
+    }
+}
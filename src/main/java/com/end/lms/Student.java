@@ -1,23 +1,16 @@
 package com.end.lms;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 public class Student extends User {
-    private Map<String, List<Answer>> examAnswers = new HashMap<>();
+    private Student(String userId, String username, String passwordHash) {
+        super(userId, username, passwordHash);
+    }
 
-    public Student(String userId, String username, String password) {
-        super(userId, username, password);
+    public static Student withPassword(String userId, String username, String password) {
+        return new Student(userId, username, PasswordHash.hash(password));
     }
 
-    public void submitAnswer(Answer answer) {
-        if (answer.validate()) {
-            answer.submit();
-            examAnswers.computeIfAbsent(answer.getExamId(), k -> new ArrayList<>())
-                    .add(answer);
-        }
+    public static Student withPasswordHash(String userId, String username, String passwordHash) {
+        return new Student(userId, username, passwordHash);
     }
 
 }
@@ -0,0 +1,115 @@
+package com.end.lms;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class SubmissionStore {
+    private final Function<String, AnswerKey> answerKeys;
+    private final Map<String, AnswerColumns> byExam = new ConcurrentHashMap<>();
+    private final Map<String, int[]> byStudent = new ConcurrentHashMap<>();
+
+    public interface SubmissionConsumer {
+        void accept(String studentId, String examId, List<Answer> answers);
+    }
+
+    public SubmissionStore() {
+        this(examId -> null);
+    }
+
+    public SubmissionStore(Function<String, AnswerKey> answerKeys) {
+        this.answerKeys = answerKeys;
+    }
+
+    public void put(String studentId, String examId, List<Answer> answers) {
+        int exam = Symbols.intern(examId);
+        byExam.computeIfAbsent(Symbols.name(exam), id -> new AnswerColumns(id, () -> answerKeys.apply(id)))
+                .put(studentId, answers);
+        byStudent.compute(Symbols.canonical(studentId), (k, examIds) -> {
+            if (examIds == null)
+                return new int[] { exam };
+            for (int submitted : examIds) {
+                if (submitted == exam)
+                    return examIds;
+            }
+            int[] added = Arrays.copyOf(examIds, examIds.length + 1);
+            added[examIds.length] = exam;
+            return added;
+        });
+    }
+
+    public List<Answer> get(String studentId, String examId) {
+        AnswerColumns columns = byExam.get(examId);
+        return columns == null ? null : columns.get(studentId);
+    }
+
+    public boolean hasSubmitted(String studentId, String examId) {
+        AnswerColumns columns = byExam.get(examId);
+        return columns != null && columns.contains(studentId);
+    }
+
+    public Map<String, List<Answer>> forExam(String examId) {
+        AnswerColumns columns = byExam.get(examId);
+        return columns == null ? Map.of() : columns.asMap();
+    }
+
+    public GradeStatistics.Summary statistics(String examId) {
+        AnswerColumns columns = byExam.get(examId);
+        return columns == null ? new GradeStatistics(0).summary() : columns.statistics();
+    }
+
+    public ItemAnalysis analyzeItems(String examId) {
+        AnswerColumns columns = byExam.get(examId);
+        return columns == null ? ItemAnalysis.empty() : columns.analyzeItems();
+    }
+
+    public GradingEngine.Gradable grading(String examId) {
+        AnswerColumns columns = byExam.get(examId);
+        return columns == null ? new AnswerColumns(examId, () -> answerKeys.apply(examId)).grading()
+                : columns.grading();
+    }
+
+    AnswerColumns columnsFor(String examId) {
+        return byExam.get(examId);
+    }
+
+    public Map<String, List<Answer>> forStudent(String studentId) {
+        int[] examIds = byStudent.get(studentId);
+        if (examIds == null)
+            return Map.of();
+
+        Map<String, List<Answer>> submitted = new LinkedHashMap<>();
+        for (int exam : examIds) {
+            String examId = Symbols.name(exam);
+            List<Answer> answers = get(studentId, examId);
+            if (answers != null) {
+                submitted.put(examId, answers);
+            }
+        }
+        return Collections.unmodifiableMap(submitted);
+    }
+
+    public int size() {
+        int size = 0;
+        for (AnswerColumns columns : byExam.values()) {
+            size += columns.size();
+        }
+        return size;
+    }
+
+    public void forEach(SubmissionConsumer consumer) {
+        byExam.forEach((examId, columns) -> columns.asMap()
+                .forEach((studentId, answers) -> consumer.accept(studentId, examId, answers)));
+    }
+
+    public SubmissionStore copy() {
+        SubmissionStore copy = new SubmissionStore(answerKeys);
+        byExam.forEach((examId, columns) -> copy.byExam.put(examId, columns.copy()));
+        copy.byStudent.putAll(byStudent);
+        return copy;
+    }
+}
@@ -0,0 +1,144 @@
+package com.end.lms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Symbols {
+    public static final int NONE = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final Object LOCK = new Object();
+
+    private static volatile String[] names = new String[1024];
+    private static volatile int count;
+
+    private Symbols() {
+    }
+
+    public static int intern(String name) {
+        if (name == null)
+            return NONE;
+        Integer id = IDS.get(name);
+        if (id != null)
+            return id;
+
+        synchronized (LOCK) {
+            id = IDS.get(name);
+            if (id != null)
+                return id;
+
+            int next = count;
+            String[] current = names;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                names = current;
+            }
+            current[next] = name;
+            count = next + 1;
+            IDS.put(name, next);
+            return next;
+        }
+    }
+
+    public static int lookup(String name) {
+        if (name == null)
+            return NONE;
+        Integer id = IDS.get(name);
+        return id == null ? NONE : id;
+    }
+
+    public static String name(int id) {
+        if (id < 0 || id >= count)
+            return null;
+        return names[id];
+    }
+
+    public static String canonical(String name) {
+        return name(intern(name));
+    }
+
+    public static int size() {
+        return count;
+    }
+
+    public static final class Index {
+        private static final int EMPTY = -1;
+
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        public Index() {
+            this(16);
+        }
+
+        public Index(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            this.keys = new int[capacity];
+            this.values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        public Index(Index source) {
+            this.keys = source.keys.clone();
+            this.values = source.values.clone();
+            this.size = source.size;
+        }
+
+        public int get(int symbol) {
+            if (symbol < 0)
+                return NONE;
+            int mask = keys.length - 1;
+            for (int i = mix(symbol) & mask; ; i = (i + 1) & mask) {
+                int key = keys[i];
+                if (key == symbol)
+                    return values[i];
+                if (key == EMPTY)
+                    return NONE;
+            }
+        }
+
+        public boolean putIfAbsent(int symbol, int value) {
+            if (symbol < 0)
+                throw new IllegalArgumentException("Invalid symbol " + symbol);
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            for (int i = mix(symbol) & mask; ; i = (i + 1) & mask) {
+                int key = keys[i];
+                if (key == symbol)
+                    return false;
+                if (key == EMPTY) {
+                    keys[i] = symbol;
+                    values[i] = value;
+                    size++;
+                    return true;
+                }
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    putIfAbsent(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int symbol) {
+            return symbol * 0x9E3779B9 >>> 7 ^ symbol;
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package com.end.lms;
 
 public abstract class User {
-    private String userId;
+    private int userId;
     private String username;
-    private String password;
+    private String passwordHash;
 
-    public User(String userId, String username, String password) {
-        this.userId = userId;
+    protected User(String userId, String username, String passwordHash) {
+        this.userId = Symbols.intern(userId);
         this.username = username;
-        this.password = password;
-
+        this.passwordHash = passwordHash;
     }
 
     public String getUserId() {
+        return Symbols.name(userId);
+    }
+
+    public int getUserSymbol() {
         return userId;
     }
 
@@ -20,7 +23,11 @@ public abstract class User {
         return username;
     }
 
+    String getPasswordHash() {
+        return passwordHash;
+    }
+
     public boolean validatePassword(String inputPassword) {
-        return this.password.equals(inputPassword);
+        return PasswordHash.verify(inputPassword, passwordHash);
     }
 }
@@ -0,0 +1,415 @@
+package com.end.lms;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+public class WriteAheadLog implements AutoCloseable {
+    private static final byte SUBMISSION = 1;
+    private static final byte SCORE = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int SEGMENT_DIGITS = 20;
+
+    private final Path directory;
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private long segmentStart;
+    private List<PendingRecord> pending = new ArrayList<>();
+    private long endPosition;
+    private long durablePosition;
+    private IOException failure;
+    private boolean closed;
+    private final Thread flusher;
+
+    public interface Replayer {
+        void onSubmission(String studentId, String examId, List<Answer> answers, List<KeyLogEntry> logs);
+
+        void onScore(String studentId, String examId, float score);
+    }
+
+    private WriteAheadLog(Path directory, FileChannel channel, long segmentStart, long endPosition) {
+        this.directory = directory;
+        this.channel = channel;
+        this.segmentStart = segmentStart;
+        this.endPosition = endPosition;
+        this.durablePosition = endPosition;
+        this.flusher = new Thread(this::flushLoop, "wal-group-commit");
+        this.flusher.setDaemon(true);
+    }
+
+    public static WriteAheadLog open(Path directory, Replayer replayer) throws IOException {
+        return open(directory, 0, replayer);
+    }
+
+    public static WriteAheadLog open(Path directory, long fromPosition, Replayer replayer) throws IOException {
+        Files.createDirectories(directory);
+        List<Long> starts = segmentStarts(directory);
+        if (starts.isEmpty())
+            return start(directory, fromPosition, createSegment(directory, fromPosition));
+
+        long lastStart = starts.get(starts.size() - 1);
+        long end = lastStart + Files.size(segmentFile(directory, lastStart));
+        if (fromPosition > end) {
+            moveAside(directory, starts);
+            Events.warn("wal.behind_snapshot", "directory", directory, "end", end, "snapshotPosition", fromPosition);
+            return start(directory, fromPosition, createSegment(directory, fromPosition));
+        }
+
+        int first = 0;
+        while (first + 1 < starts.size() && starts.get(first + 1) <= fromPosition) {
+            first++;
+        }
+        if (starts.get(first) > fromPosition) {
+            Events.warn("wal.missing_segments", "directory", directory, "snapshotPosition", fromPosition,
+                    "firstSegment", starts.get(first));
+        }
+
+        for (int i = first;; i++) {
+            long segment = starts.get(i);
+            Path file = segmentFile(directory, segment);
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean last = i == starts.size() - 1;
+            try {
+                long validEnd = replay(channel, Math.max(0, fromPosition - segment), replayer);
+                if (validEnd < channel.size()) {
+                    channel.truncate(validEnd);
+                    channel.force(false);
+                    if (!last) {
+                        List<Long> dropped = starts.subList(i + 1, starts.size());
+                        Events.warn("wal.segment_corrupt", "file", file, "validEnd", validEnd,
+                                "droppedSegments", dropped.size());
+                        moveAside(directory, dropped);
+                        last = true;
+                    }
+                }
+                if (last) {
+                    channel.position(validEnd);
+                    return start(directory, segment, channel);
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            channel.close();
+        }
+    }
+
+    private static WriteAheadLog start(Path directory, long segmentStart, FileChannel channel) throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, channel, segmentStart, segmentStart + channel.position());
+        log.flusher.start();
+        return log;
+    }
+
+    static Path segmentFile(Path directory, long start) {
+        return directory.resolve(String.format("%0" + SEGMENT_DIGITS + "d", start) + SEGMENT_SUFFIX);
+    }
+
+    private static List<Long> segmentStarts(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.length() == SEGMENT_DIGITS + SEGMENT_SUFFIX.length()
+                            && name.endsWith(SEGMENT_SUFFIX)
+                            && name.chars().limit(SEGMENT_DIGITS).allMatch(Character::isDigit))
+                    .map(name -> Long.parseLong(name.substring(0, SEGMENT_DIGITS)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static FileChannel createSegment(Path directory, long start) throws IOException {
+        return FileChannel.open(segmentFile(directory, start), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void moveAside(Path directory, List<Long> starts) throws IOException {
+        String suffix = ".stale-" + System.currentTimeMillis();
+        for (long start : starts) {
+            Path file = segmentFile(directory, start);
+            Files.move(file, file.resolveSibling(file.getFileName() + suffix));
+        }
+    }
+
+    private static long replay(FileChannel channel, long fromPosition, Replayer replayer) throws IOException {
+        channel.position(fromPosition);
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+        DataInputStream data = new DataInputStream(in);
+        CRC32 crc = new CRC32();
+        long position = fromPosition;
+        long size = channel.size();
+
+        while (position + HEADER_SIZE <= size) {
+            int length;
+            int checksum;
+            byte[] payload;
+            try {
+                length = data.readInt();
+                checksum = data.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE || position + HEADER_SIZE + length > size)
+                    break;
+                payload = new byte[length];
+                data.readFully(payload);
+            } catch (EOFException e) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum)
+                break;
+
+            apply(payload, replayer);
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private static void apply(byte[] payload, Replayer replayer) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        String studentId = in.readUTF();
+        String examId = in.readUTF();
+
+        if (type == SCORE) {
+            replayer.onScore(studentId, examId, in.readFloat());
+        } else if (type == SUBMISSION) {
+            int answerCount = in.readInt();
+            List<Answer> answers = new ArrayList<>(answerCount);
+            for (int i = 0; i < answerCount; i++) {
+                String questionId = in.readUTF();
+                String content = in.readUTF();
+                answers.add(new Answer(studentId, examId, questionId, content));
+            }
+
+            int logCount = in.readInt();
+            List<KeyLogEntry> logs = new ArrayList<>(logCount);
+            for (int i = 0; i < logCount; i++) {
+                long timestamp = in.readLong();
+                String action = in.readUTF();
+                logs.add(new KeyLogEntry(action, timestamp));
+            }
+            replayer.onSubmission(studentId, examId, answers, logs);
+        }
+    }
+
+    public CompletableFuture<Void> appendSubmission(String studentId, String examId,
+            List<Answer> answers, List<KeyLogEntry> logs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + answers.size() * 8 + logs.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(SUBMISSION);
+            out.writeUTF(studentId);
+            out.writeUTF(examId);
+            out.writeInt(answers.size());
+            for (Answer answer : answers) {
+                out.writeUTF(answer.getQuestionId());
+                out.writeUTF(answer.getContent());
+            }
+            out.writeInt(logs.size());
+            for (KeyLogEntry log : logs) {
+                out.writeLong(log.getTimestampMillis());
+                out.writeUTF(log.getAction());
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return appendPayload(bytes.toByteArray());
+    }
+
+    public CompletableFuture<Void> appendScore(String studentId, String examId, float score) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(SCORE);
+            out.writeUTF(studentId);
+            out.writeUTF(examId);
+            out.writeFloat(score);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return appendPayload(bytes.toByteArray());
+    }
+
+    private CompletableFuture<Void> appendPayload(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        return append(new PendingRecord(record, false));
+    }
+
+    private CompletableFuture<Void> append(PendingRecord record) {
+        CompletableFuture<Void> done = record.done;
+        synchronized (lock) {
+            if (closed) {
+                done.completeExceptionally(new IOException("Write-ahead log is closed"));
+                return done;
+            }
+            if (failure != null) {
+                done.completeExceptionally(new IOException("Write-ahead log failed", failure));
+                return done;
+            }
+            pending.add(record);
+            endPosition += record.record.remaining();
+            lock.notifyAll();
+        }
+        return done;
+    }
+
+    public CompletableFuture<Void> rollover() {
+        return append(new PendingRecord(ByteBuffer.allocate(0), true));
+    }
+
+    public void deleteSegmentsBefore(long position) throws IOException {
+        List<Long> starts = segmentStarts(directory);
+        for (int i = 0; i + 1 < starts.size() && starts.get(i + 1) <= position; i++) {
+            Files.deleteIfExists(segmentFile(directory, starts.get(i)));
+        }
+    }
+
+    public long position() {
+        synchronized (lock) {
+            return endPosition;
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<PendingRecord> batch;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.isEmpty())
+                    return;
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<PendingRecord> batch) {
+        int from = 0;
+        for (int i = 0; i <= batch.size(); i++) {
+            if (i < batch.size() && !batch.get(i).rollover)
+                continue;
+
+            List<PendingRecord> records = batch.subList(from, i);
+            try {
+                write(records);
+            } catch (IOException e) {
+                fail(batch.subList(from, batch.size()), e);
+                return;
+            }
+            records.forEach(r -> r.done.complete(null));
+            if (i < batch.size()) {
+                startSegment();
+                batch.get(i).done.complete(null);
+            }
+            from = i + 1;
+        }
+    }
+
+    private void write(List<PendingRecord> records) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[records.size()];
+        long size = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = records.get(i).record;
+            size += buffers[i].remaining();
+        }
+        if (size == 0)
+            return;
+
+        long remaining = size;
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        channel.force(false);
+        durablePosition += size;
+    }
+
+    private void startSegment() {
+        if (durablePosition == segmentStart)
+            return;
+        try {
+            FileChannel next = createSegment(directory, durablePosition);
+            channel.close();
+            channel = next;
+            segmentStart = durablePosition;
+        } catch (IOException e) {
+            Events.warn("wal.rollover_failed", "directory", directory, "position", durablePosition,
+                    "error", e.getMessage());
+        }
+    }
+
+    private void fail(List<PendingRecord> batch, IOException error) {
+        try {
+            channel.truncate(durablePosition - segmentStart);
+            channel.position(durablePosition - segmentStart);
+            channel.force(false);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+
+        List<PendingRecord> queued;
+        synchronized (lock) {
+            failure = error;
+            endPosition = durablePosition;
+            queued = pending;
+            pending = new ArrayList<>();
+        }
+        Events.warn("wal.write_failed", "position", durablePosition, "error", error.getMessage());
+        batch.forEach(r -> r.done.completeExceptionally(error));
+        queued.forEach(r -> r.done.completeExceptionally(error));
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed)
+                return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private static class PendingRecord {
+        final ByteBuffer record;
+        final boolean rollover;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingRecord(ByteBuffer record, boolean rollover) {
+            this.record = record;
+            this.rollover = rollover;
+        }
+    }
+}
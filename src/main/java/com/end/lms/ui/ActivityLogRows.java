@@ -0,0 +1,121 @@
+package com.end.lms.ui;
+
+import com.end.lms.KeyLogEntry;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class ActivityLogRows extends AbstractList<ActivityLogRows.Row> {
+    private static final Row BLANK = new Row(null, null);
+
+    private final String[] studentIds;
+    private final List<List<KeyLogEntry>> logs;
+    private final int[][] matches;
+    private final int[] rowStart;
+    private final int entryCount;
+
+    public record Row(String studentId, KeyLogEntry entry) {
+        public boolean isHeader() {
+            return studentId != null && entry == null;
+        }
+    }
+
+    private ActivityLogRows(String[] studentIds, List<List<KeyLogEntry>> logs, int[][] matches) {
+        this.studentIds = studentIds;
+        this.logs = logs;
+        this.matches = matches;
+        this.rowStart = new int[studentIds.length + 1];
+        int entries = 0;
+        for (int i = 0; i < studentIds.length; i++) {
+            int count = matches[i] == null ? logs.get(i).size() : matches[i].length;
+            entries += count;
+            rowStart[i + 1] = rowStart[i] + count + 2;
+        }
+        this.entryCount = entries;
+    }
+
+    public static ActivityLogRows empty() {
+        return build(Map.of(), null, null);
+    }
+
+    public static ActivityLogRows build(Map<String, List<KeyLogEntry>> logsByStudent, String studentFilter,
+            String actionFilter) {
+        String studentNeedle = studentFilter == null || studentFilter.isBlank() ? null
+                : studentFilter.trim().toLowerCase(Locale.ROOT);
+
+        List<String> selected = new ArrayList<>(logsByStudent.size());
+        for (String studentId : logsByStudent.keySet()) {
+            if (studentNeedle == null || studentId.toLowerCase(Locale.ROOT).contains(studentNeedle)) {
+                selected.add(studentId);
+            }
+        }
+        String[] ids = selected.toArray(new String[0]);
+        Arrays.sort(ids);
+
+        List<List<KeyLogEntry>> groups = new ArrayList<>(ids.length);
+        int[][] matches = new int[ids.length][];
+        int kept = 0;
+        for (String studentId : ids) {
+            List<KeyLogEntry> studentLogs = logsByStudent.get(studentId);
+            if (studentLogs == null)
+                continue;
+            int[] matching = actionFilter == null ? null : matchingEntries(studentLogs, actionFilter);
+            if (matching != null && matching.length == 0)
+                continue;
+            ids[kept] = studentId;
+            groups.add(studentLogs);
+            matches[kept] = matching;
+            kept++;
+        }
+        return new ActivityLogRows(Arrays.copyOf(ids, kept), groups, Arrays.copyOf(matches, kept));
+    }
+
+    private static int[] matchingEntries(List<KeyLogEntry> logs, String action) {
+        int[] matching = new int[logs.size()];
+        int count = 0;
+        for (int i = 0, n = logs.size(); i < n; i++) {
+            if (action.equals(logs.get(i).getAction())) {
+                matching[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matching, count);
+    }
+
+    @Override
+    public Row get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException(index);
+
+        int group = Arrays.binarySearch(rowStart, index);
+        if (group < 0) {
+            group = -group - 2;
+        }
+        int offset = index - rowStart[group];
+        if (offset == 0)
+            return new Row(studentIds[group], null);
+
+        int entry = offset - 1;
+        int[] matching = matches[group];
+        int count = matching == null ? logs.get(group).size() : matching.length;
+        if (entry >= count)
+            return BLANK;
+        return new Row(studentIds[group], logs.get(group).get(matching == null ? entry : matching[entry]));
+    }
+
+    @Override
+    public int size() {
+        return rowStart[studentIds.length];
+    }
+
+    public int getStudentCount() {
+        return studentIds.length;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+}
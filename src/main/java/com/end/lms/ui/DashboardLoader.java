@@ -0,0 +1,78 @@
+package com.end.lms.ui;
+
+import com.end.lms.Events;
+import com.end.lms.ExamService;
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class DashboardLoader implements AutoCloseable {
+    private final ExamService examService;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("dashboard-loader-", 0).factory());
+    private final Map<String, CachedView> cache = new ConcurrentHashMap<>();
+    private final Map<String, Task<?>> running = new HashMap<>();
+
+    private record CachedView(long version, Object value) {
+    }
+
+    public DashboardLoader(ExamService examService) {
+        this.examService = examService;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> void load(String key, Callable<T> loader, Consumer<T> onLoaded) {
+        long version = examService.getVersion();
+        CachedView cached = cache.get(key);
+        if (cached != null && cached.version() == version) {
+            cancel(key);
+            onLoaded.accept((T) cached.value());
+            return;
+        }
+
+        cancel(key);
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return loader.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            running.remove(key, task);
+            cache.put(key, new CachedView(version, task.getValue()));
+            onLoaded.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            running.remove(key, task);
+            Events.warn("dashboard.load_failed", "view", key, "error", String.valueOf(task.getException()));
+        });
+        running.put(key, task);
+        executor.execute(task);
+    }
+
+    public void cancel(String key) {
+        Task<?> task = running.remove(key);
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    public void cancelAll() {
+        for (String key : new ArrayList<>(running.keySet())) {
+            cancel(key);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+}
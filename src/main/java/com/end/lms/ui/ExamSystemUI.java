@@ -2,6 +2,7 @@ package com.end.lms.ui;
 
 import com.end.lms.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -9,14 +10,36 @@ import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 
 public class ExamSystemUI extends Application {
-    private static final Map<String, User> users = new HashMap<>();
-    private static final Map<String, Exam> exams = new HashMap<>();
-    private static final Map<String, Map<String, List<Answer>>> studentAnswers = new HashMap<>();
-    private static final Map<String, List<KeyLogEntry>> examLogs = new HashMap<>();
     private static final String ICON_PATH = "/com/end/lms/icon.png";
+    private static final Path DATA_DIR = Paths.get(System.getProperty("lms.data.dir", "data"));
+    private static final Path RULES_DIR = DATA_DIR.resolve("rules");
+    private static final Path IMPORT_DIR = DATA_DIR.resolve("import");
+    private static final Path ROSTER_CACHE = DATA_DIR.resolve("roster.cache");
+    private static final String SAMPLE_DIR = "/com/end/lms/";
+    private static ExamService examService;
+    private static DashboardLoader dashboardLoader;
+    private static Authenticator authenticator;
+    private static CompletableFuture<Void> usersReady;
+    private static CompletableFuture<Void> examsReady;
+    private static final ViewCache viewCache = new ViewCache();
+    private Image icon;
+    private Scene loginScene;
+    private TextField usernameField;
+    private PasswordField passwordField;
+    private Label statusLabel;
+    private Button loginButton;
 
     @Override
     public void start(Stage primaryStage) {
@@ -25,25 +48,40 @@ public class ExamSystemUI extends Application {
         showLoginScreen(primaryStage);
     }
 
-    public static Map<String, Map<String, List<Answer>>> getStudentAnswers() {
-        return studentAnswers;
+    @Override
+    public void stop() {
+        if (dashboardLoader != null) {
+            dashboardLoader.close();
+        }
+        if (authenticator != null) {
+            authenticator.close();
+        }
+        if (examService != null) {
+            examService.close();
+        }
     }
 
     private void setStageIcon(Stage stage) {
         try {
-
-            Image icon = new Image(Objects.requireNonNull(getClass().getResourceAsStream(ICON_PATH)));
-            stage.getIcons().add(icon);
+            if (icon == null) {
+                icon = new Image(Objects.requireNonNull(getClass().getResourceAsStream(ICON_PATH)));
+            }
+            if (!stage.getIcons().contains(icon)) {
+                stage.getIcons().add(icon);
+            }
         } catch (Exception e) {
             System.err.println("Warning: Could not load application icon");
         }
     }
 
     private void showLoginScreen(Stage stage) {
-        VBox loginBox = createLoginBox(stage);
-        Scene scene = new Scene(loginBox, 400, 300);
+        if (loginScene == null) {
+            loginScene = new Scene(createLoginBox(stage), 400, 300);
+        }
+        passwordField.clear();
+        statusLabel.setText("");
         stage.setTitle("Exam System Login");
-        stage.setScene(scene);
+        stage.setScene(loginScene);
         stage.show();
     }
 
@@ -56,19 +94,19 @@ public class ExamSystemUI extends Application {
         Label titleLabel = new Label("Exam System Login");
         titleLabel.setStyle("-fx-font-size: 24px; -fx-font-weight: bold;");
 
-        TextField usernameField = new TextField();
+        usernameField = new TextField();
         usernameField.setPromptText("Username");
         usernameField.setMaxWidth(250);
 
-        PasswordField passwordField = new PasswordField();
+        passwordField = new PasswordField();
         passwordField.setPromptText("Password");
         passwordField.setMaxWidth(250);
 
-        Button loginButton = new Button("Login");
+        loginButton = new Button("Login");
         loginButton.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
         loginButton.setMaxWidth(250);
 
-        Label statusLabel = new Label("");
+        statusLabel = new Label("");
         statusLabel.setStyle("-fx-text-fill: red;");
 
         loginButton.setOnAction(e -> handleLogin(stage, usernameField.getText(),
@@ -87,92 +125,128 @@ public class ExamSystemUI extends Application {
     }
 
     private void handleLogin(Stage stage, String username, String password, Label statusLabel) {
-        User user = users.get(username);
-        if (user != null && user.validatePassword(password)) {
-            if (user instanceof Student) {
-                showStudentDashboard(stage, (Student) user);
-            } else {
-                showLecturerDashboard(stage, (Lecturer) user);
-            }
-        } else {
-            statusLabel.setText("Invalid username or password!");
-        }
+        loginButton.setDisable(true);
+        statusLabel.setText("");
+        CompletableFuture.allOf(usersReady, examsReady).thenCompose(v -> authenticator.login(username, password))
+                .whenComplete((session, error) -> Platform.runLater(() -> {
+                    loginButton.setDisable(false);
+                    if (error != null) {
+                        statusLabel.setText(error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+                    } else if (session.isEmpty()) {
+                        statusLabel.setText("Invalid username or password!");
+                    } else {
+                        showDashboard(stage, session.get());
+                    }
+                }));
     }
 
     private void initializeData() {
+        if (authenticator == null) {
+            authenticator = new Authenticator();
+            usersReady = CompletableFuture.runAsync(this::importRoster);
+        }
 
-        users.put("student", new Student("S001", "student", "pass123"));
-        users.put("student2", new Student("S002", "student2", "pass123"));
-        users.put("student3", new Student("S003", "student3", "pass123"));
-        users.put("lecturer", new Lecturer("L001", "lecturer", "pass123"));
-
-        Exam exam = new Exam("E001", "Programming Basics");
-
-        addSampleQuestions(exam);
-
-        exam.publish();
-        exams.put(exam.getExamId(), exam);
-
-        Exam exam2 = new Exam("E002", "Programming Basics2");
-
-        addSampleQuestions2(exam2);
+        if (examService == null) {
+            examService = ExamService.open(DATA_DIR);
+            examsReady = examService.getExams().isEmpty()
+                    ? CompletableFuture.runAsync(this::importExams).thenRun(this::loadKeyActionRules)
+                    : CompletableFuture.runAsync(this::loadKeyActionRules);
+            dashboardLoader = new DashboardLoader(examService);
+        }
+    }
 
-        exam2.publish();
-        exams.put(exam2.getExamId(), exam2);
+    private void loadKeyActionRules() {
+        for (Exam exam : examService.getExams()) {
+            Path rulesFile = RULES_DIR.resolve(exam.getExamId() + ".rules");
+            if (!Files.exists(rulesFile))
+                continue;
+            try {
+                exam.setKeyActionRules(KeyActionRules.load(rulesFile));
+            } catch (IOException | IllegalArgumentException e) {
+                Events.warn("rules.load_failed", "examId", exam.getExamId(), "file", rulesFile,
+                        "error", e.getMessage());
+            }
+        }
     }
 
-    private void addSampleQuestions2(Exam exam) {
+    private void importExams() {
+        try (BulkImporter importer = new BulkImporter()) {
+            BulkImporter.Result result = importer.importExams(openImport("exams", "sample-exams.csv"), exam -> {
+                exam.publish();
+                examService.addExam(exam);
+            });
+            reportImportErrors("exams", result);
+        } catch (IOException e) {
+            Events.warn("import.failed", "file", "exams", "error", e.getMessage());
+        }
+    }
 
-        String[][] questions = {
-                { "What is Java?", "A. Coffee", "B. Programming Language", "C. Island", "B" },
-                { "Which is not a primitive type?", "A. int", "B. String", "C. boolean", "B" },
-                { "What is the main purpose of JVM?", "A. To compile Java code", "B. To provide platform independence",
-                        "C. To debug Java programs", "B" },
-                { "What is the default value of int?", "A. 0", "B. null", "C. undefined", "A" },
-                { "Java is:", "A. Compiled Language", "B. Interpreted Language", "C. Both A and B", "C" }
-        };
+    private void importRoster() {
+        try {
+            Path file = importFile("roster");
+            byte[] digest;
+            try (InputStream source = file != null ? Files.newInputStream(file) : openSample("sample-roster.csv")) {
+                digest = RosterCache.digest(source);
+            }
+            List<User> cached = RosterCache.read(ROSTER_CACHE, digest);
+            if (cached != null) {
+                cached.forEach(authenticator::register);
+                Events.info("roster.cache_loaded", "users", cached.size());
+                return;
+            }
 
-        for (int i = 0; i < questions.length; i++) {
-            Question q = new Question("Q" + (i + 1), questions[i][0], 20, "MULTIPLE_CHOICE");
-            for (int j = 1; j <= 3; j++) {
-                q.addOption(questions[i][j]);
+            List<User> users = new ArrayList<>();
+            try (BulkImporter importer = new BulkImporter()) {
+                reportImportErrors("roster", importer.importRoster(openImport("roster", "sample-roster.csv"), user -> {
+                    authenticator.register(user);
+                    users.add(user);
+                }));
             }
-            q.setCorrectAnswer(questions[i][4]);
-            exam.addQuestion(q);
+            RosterCache.write(ROSTER_CACHE, digest, users);
+        } catch (IOException e) {
+            Events.warn("import.failed", "file", "roster", "error", e.getMessage());
         }
     }
 
-    private void addSampleQuestions(Exam exam) {
+    private static Path importFile(String name) {
+        for (String extension : new String[] { ".csv", ".jsonl" }) {
+            Path file = IMPORT_DIR.resolve(name + extension);
+            if (Files.exists(file))
+                return file;
+        }
+        return null;
+    }
 
-        String[][] questions = {
-                { "What is Java?", "A. Coffee", "B. Programming Language", "C. Island", "B" },
-                { "Which is not a primitive type?", "A. int", "B. String", "C. boolean", "B" },
-                { "What is the main purpose of JVM?", "A. To compile Java code", "B. To provide platform independence",
-                        "C. To debug Java programs", "B" },
-                { "What is the default value of int?", "A. 0", "B. null", "C. undefined", "A" },
-                { "Java is:", "A. Compiled Language", "B. Interpreted Language", "C. Both A and B", "C" }
-        };
+    private InputStream openSample(String sampleResource) {
+        return Objects.requireNonNull(getClass().getResourceAsStream(SAMPLE_DIR + sampleResource));
+    }
 
-        for (int i = 0; i < questions.length; i++) {
-            Question q = new Question("Q" + (i + 1), questions[i][0], 20, "MULTIPLE_CHOICE");
-            for (int j = 1; j <= 3; j++) {
-                q.addOption(questions[i][j]);
-            }
-            q.setCorrectAnswer(questions[i][4]);
-            exam.addQuestion(q);
-        }
+    private RecordReader openImport(String name, String sampleResource) throws IOException {
+        Path file = importFile(name);
+        if (file != null)
+            return RecordReader.open(file);
+        return RecordReader.csv(new InputStreamReader(openSample(sampleResource), StandardCharsets.UTF_8));
     }
 
-    private void showStudentDashboard(Stage stage, Student student) {
-        StudentDashboard dashboard = new StudentDashboard(stage, student, exams, studentAnswers, examLogs);
-        setStageIcon(stage);
-        dashboard.show();
+    private static void reportImportErrors(String name, BulkImporter.Result result) {
+        for (BulkImporter.RowError error : result.reportedErrors()) {
+            Events.warn("import.row_rejected", "file", name, "line", error.line(), "error", error.message());
+        }
     }
 
-    private void showLecturerDashboard(Stage stage, Lecturer lecturer) {
-        LecturerDashboard dashboard = new LecturerDashboard(stage, lecturer, exams, studentAnswers, examLogs);
-        setStageIcon(stage);
-        dashboard.show();
+    private void showDashboard(Stage stage, Authenticator.Session session) {
+        Runnable onLogout = () -> {
+            authenticator.logout(session.token());
+            showLoginScreen(stage);
+        };
+        BooleanSupplier sessionActive = () -> authenticator.resume(session.token()) != null;
+        if (session.user() instanceof Student student) {
+            new StudentDashboard(stage, student, examService, dashboardLoader, viewCache, onLogout,
+                    sessionActive).show();
+        } else {
+            new LecturerDashboard(stage, (Lecturer) session.user(), examService, dashboardLoader, viewCache,
+                    onLogout, sessionActive).show();
+        }
     }
 
     public static void main(String[] args) {
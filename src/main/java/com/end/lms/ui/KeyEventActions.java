@@ -0,0 +1,30 @@
+package com.end.lms.ui;
+
+import com.end.lms.KeyAction;
+import com.end.lms.KeyActionRules;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public final class KeyEventActions {
+    private static final int[] KEY_INDEXES = keyIndexes();
+
+    private KeyEventActions() {
+    }
+
+    private static int[] keyIndexes() {
+        KeyCode[] codes = KeyCode.values();
+        int[] indexes = new int[codes.length];
+        for (KeyCode code : codes) {
+            indexes[code.ordinal()] = KeyActionRules.keyIndexOf(code.name());
+        }
+        return indexes;
+    }
+
+    public static KeyAction classify(KeyActionRules rules, KeyEvent event) {
+        int key = KEY_INDEXES[event.getCode().ordinal()];
+        if (key < 0)
+            return null;
+        return rules.classify(key, KeyActionRules.modifiers(
+                event.isShiftDown(), event.isControlDown(), event.isAltDown(), event.isMetaDown()));
+    }
+}
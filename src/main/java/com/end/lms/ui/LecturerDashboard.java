@@ -1,34 +1,66 @@
 package com.end.lms.ui;
 
 import com.end.lms.*;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.Stage;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class LecturerDashboard {
+    private static final String ALL_ACTIONS = "All actions";
+    private static final int DISTRIBUTION_BINS = 10;
+
     private final Lecturer lecturer;
     private final Stage stage;
-    private final Map<String, Exam> exams;
-    private final Map<String, Map<String, List<Answer>>> studentAnswers;
-    private final Map<String, List<KeyLogEntry>> examLogs;
-
-    public LecturerDashboard(Stage stage, Lecturer lecturer,
-            Map<String, Exam> exams,
-            Map<String, Map<String, List<Answer>>> studentAnswers,
-            Map<String, List<KeyLogEntry>> examLogs) {
+    private final ExamService examService;
+    private final DashboardLoader loader;
+    private final ViewCache viewCache;
+    private final Runnable onLogout;
+    private final BooleanSupplier sessionActive;
+    private TableView<ExamEntry> examTable;
+    private ComboBox<String> examSelector;
+    private int logsGeneration;
+
+    public LecturerDashboard(Stage stage, Lecturer lecturer, ExamService examService, DashboardLoader loader,
+            ViewCache viewCache, Runnable onLogout, BooleanSupplier sessionActive) {
         this.stage = stage;
         this.lecturer = lecturer;
-        this.exams = exams;
-        this.studentAnswers = studentAnswers;
-        this.examLogs = examLogs;
+        this.examService = examService;
+        this.loader = loader;
+        this.viewCache = viewCache;
+        this.onLogout = onLogout;
+        this.sessionActive = sessionActive;
+    }
+
+    private String viewKey() {
+        return "lecturer/" + lecturer.getUserId();
+    }
+
+    private String title() {
+        return "Lecturer Dashboard - " + lecturer.getUsername();
     }
 
     public void show() {
+        viewCache.show(stage, viewKey(), this::buildView);
+    }
+
+    private ViewCache.View buildView() {
         VBox dashboard = new VBox(10);
         dashboard.setPadding(new Insets(20));
         dashboard.setAlignment(Pos.TOP_CENTER);
@@ -43,12 +75,33 @@ public class LecturerDashboard {
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
         Button logoutBtn = new Button("Logout");
-        logoutBtn.setOnAction(e -> new ExamSystemUI().start(stage));
+        logoutBtn.setOnAction(e -> logout());
 
         dashboard.getChildren().addAll(welcomeLabel, tabPane, logoutBtn);
         Scene scene = new Scene(dashboard, 800, 600);
-        stage.setScene(scene);
-        stage.setTitle("Lecturer Dashboard - " + lecturer.getUsername());
+        return new ViewCache.View(scene, title(), this::refresh);
+    }
+
+    private void logout() {
+        loader.cancelAll();
+        viewCache.invalidatePrefix(viewKey());
+        onLogout.run();
+    }
+
+    private void refresh() {
+        if (!sessionActive.getAsBoolean()) {
+            logout();
+            return;
+        }
+        loader.load(viewKey() + "/exams", this::loadExams, exams -> {
+            ViewCache.updateItems(examTable.getItems(), exams);
+            examTable.setPlaceholder(new Label("No exams"));
+            examTable.refresh();
+
+            List<String> titles = new ArrayList<>(exams.size());
+            exams.forEach(entry -> titles.add(entry.exam().getTitle()));
+            ViewCache.updateItems(examSelector.getItems(), titles);
+        });
     }
 
     private Tab createExamManagementTab() {
@@ -57,81 +110,149 @@ public class LecturerDashboard {
         VBox content = new VBox(10);
         content.setPadding(new Insets(10));
 
-        TableView<ExamEntry> examTable = new TableView<>();
+        examTable = new TableView<>();
         examTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<ExamEntry, String> titleCol = new TableColumn<>("Exam Title");
-        titleCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().exam.getTitle()));
+        titleCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().exam().getTitle()));
 
         TableColumn<ExamEntry, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue().exam.isPublished() ? "Published" : "Draft"));
+                data.getValue().exam().isPublished() ? "Published" : "Draft"));
 
         examTable.getColumns().addAll(titleCol, statusCol);
-        loadExams(examTable);
+        examTable.setPlaceholder(new Label("Loading..."));
 
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
         Button viewResultsBtn = new Button("View Results");
         Button editScoresBtn = new Button("Edit Scores");
+        Button itemAnalysisBtn = new Button("Item Analysis");
+        Button exportBtn = new Button("Export Results");
+        Label exportStatus = new Label();
 
         viewResultsBtn.setOnAction(e -> {
             ExamEntry selected = examTable.getSelectionModel().getSelectedItem();
-            if (selected != null)
-                showExamResults(selected.exam);
+            if (selected != null) {
+                loader.cancelAll();
+                showExamResults(selected.exam());
+            }
         });
 
         editScoresBtn.setOnAction(e -> {
             ExamEntry selected = examTable.getSelectionModel().getSelectedItem();
-            if (selected != null)
-                showScoreEditor(selected.exam);
+            if (selected != null) {
+                loader.cancelAll();
+                showScoreEditor(selected.exam());
+            }
+        });
+
+        exportBtn.setOnAction(e -> {
+            ExamEntry selected = examTable.getSelectionModel().getSelectedItem();
+            if (selected == null)
+                return;
+            DirectoryChooser chooser = new DirectoryChooser();
+            chooser.setTitle("Export results for " + selected.exam().getTitle());
+            File directory = chooser.showDialog(stage);
+            if (directory != null) {
+                exportResults(selected.exam(), directory.toPath(), exportBtn, exportStatus);
+            }
+        });
+
+        itemAnalysisBtn.setOnAction(e -> {
+            ExamEntry selected = examTable.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                loader.cancelAll();
+                showItemAnalysis(selected.exam());
+            }
         });
 
-        buttonBox.getChildren().addAll(viewResultsBtn, editScoresBtn);
-        content.getChildren().addAll(new Label("Exams:"), examTable, buttonBox);
+        buttonBox.getChildren().addAll(viewResultsBtn, editScoresBtn, itemAnalysisBtn, exportBtn);
+        content.getChildren().addAll(new Label("Exams:"), examTable, buttonBox, exportStatus);
         tab.setContent(content);
         return tab;
     }
 
+    private void exportResults(Exam exam, Path directory, Button exportBtn, Label exportStatus) {
+        exportBtn.setDisable(true);
+        exportStatus.setText("Exporting " + exam.getTitle() + "...");
+        CompletableFuture<Long> grades = examService.exportGrades(exam,
+                directory.resolve(exam.getExamId() + "-grades.csv"));
+        CompletableFuture<Long> logs = examService.exportLogs(exam.getExamId(),
+                directory.resolve(exam.getExamId() + "-logs.csv"));
+        grades.thenCombine(logs, (gradeRows, logRows) -> "Exported " + gradeRows + " grades and " + logRows
+                + " log entries to " + directory)
+                .whenComplete((message, error) -> Platform.runLater(() -> {
+                    exportBtn.setDisable(false);
+                    exportStatus.setText(error == null ? message
+                            : "Export failed: " + (error.getCause() != null ? error.getCause() : error).getMessage());
+                }));
+    }
+
     private Tab createActivityLogsTab() {
         Tab tab = new Tab("Activity Logs");
 
         VBox content = new VBox(10);
         content.setPadding(new Insets(10));
 
-        ComboBox<String> examSelector = new ComboBox<>();
-        exams.values().forEach(exam -> examSelector.getItems().add(exam.getTitle()));
+        examSelector = new ComboBox<>();
 
-        ListView<String> logsList = new ListView<>();
-        examSelector.setOnAction(e -> {
+        TextField studentFilter = new TextField();
+        studentFilter.setPromptText("Filter by student");
+
+        ComboBox<String> actionFilter = new ComboBox<>();
+        actionFilter.getItems().add(ALL_ACTIONS);
+        for (KeyAction action : KeyAction.values()) {
+            actionFilter.getItems().add(action.getDescription());
+        }
+        actionFilter.setValue(ALL_ACTIONS);
+
+        Label summary = new Label();
+        ListView<ActivityLogRows.Row> logsList = new ListView<>();
+        logsList.setCellFactory(list -> new ActivityLogCell());
+
+        Runnable reload = () -> {
             String selectedTitle = examSelector.getValue();
             if (selectedTitle != null) {
-                Exam selectedExam = findExamByTitle(selectedTitle);
-                loadActivityLogs(selectedExam, logsList);
+                Exam selectedExam = examService.findExamByTitle(selectedTitle);
+                String action = ALL_ACTIONS.equals(actionFilter.getValue()) ? null : actionFilter.getValue();
+                loadActivityLogs(selectedExam, studentFilter.getText(), action, logsList, summary);
             }
-        });
+        };
+        examSelector.setOnAction(e -> reload.run());
+        actionFilter.setOnAction(e -> reload.run());
+        studentFilter.textProperty().addListener((obs, oldText, newText) -> reload.run());
+
+        HBox filters = new HBox(10, studentFilter, actionFilter, summary);
+        filters.setAlignment(Pos.CENTER_LEFT);
 
         content.getChildren().addAll(
                 new Label("Select Exam:"),
                 examSelector,
+                filters,
                 new Label("Activity Logs:"),
                 logsList);
         tab.setContent(content);
         return tab;
     }
 
-    private void loadResults(Exam exam, TableView<StudentResult> table) {
-        studentAnswers.forEach((studentId, examAnswers) -> {
-            List<Answer> answers = examAnswers.get(exam.getExamId());
-            if (answers != null && !answers.isEmpty()) {
-
+    private List<StudentResult> loadResults(Exam exam) {
+        List<StudentResult> results = new ArrayList<>();
+        examService.getSubmissionsForExam(exam.getExamId()).forEach((studentId, answers) -> {
+            if (!answers.isEmpty()) {
                 float score = answers.get(0).getTotalScore();
-                table.getItems().add(new StudentResult(studentId, score));
+                results.add(new StudentResult(studentId, score));
             }
         });
+        results.sort(Comparator.comparing(StudentResult::studentId));
+        return results;
     }
 
     private void showExamResults(Exam exam) {
+        viewCache.show(stage, viewKey() + "/results/" + exam.getExamId(), () -> buildResultsView(exam));
+    }
+
+    private ViewCache.View buildResultsView(Exam exam) {
         VBox resultsBox = new VBox(10);
         resultsBox.setPadding(new Insets(20));
         resultsBox.setAlignment(Pos.TOP_CENTER);
@@ -140,27 +261,137 @@ public class LecturerDashboard {
         resultsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<StudentResult, String> studentCol = new TableColumn<>("Student ID");
-        studentCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().studentId));
+        studentCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().studentId()));
 
         TableColumn<StudentResult, String> scoreCol = new TableColumn<>("Score");
-        scoreCol.setCellValueFactory(data -> new SimpleStringProperty(String.format("%.2f", data.getValue().score)));
+        scoreCol.setCellValueFactory(data -> new SimpleStringProperty(String.format("%.2f", data.getValue().score())));
 
         resultsTable.getColumns().addAll(studentCol, scoreCol);
-        loadResults(exam, resultsTable);
+        resultsTable.setPlaceholder(new Label("Loading..."));
 
         Button backBtn = new Button("Back");
-        backBtn.setOnAction(e -> show());
+        backBtn.setOnAction(e -> {
+            loader.cancelAll();
+            show();
+        });
+
+        Label statisticsLabel = new Label();
+        BarChart<String, Number> distribution = new BarChart<>(new CategoryAxis(), new NumberAxis());
+        distribution.setLegendVisible(false);
+        distribution.setAnimated(false);
+        distribution.setPrefHeight(200);
 
         resultsBox.getChildren().addAll(
                 new Label("Results: " + exam.getTitle()),
+                statisticsLabel,
+                distribution,
                 resultsTable,
                 backBtn);
 
         Scene scene = new Scene(resultsBox, 800, 600);
-        stage.setScene(scene);
+        return new ViewCache.View(scene, title(), () -> {
+            showStatistics(examService.getGradeStatistics(exam.getExamId()), statisticsLabel, distribution);
+            loader.load("exam/" + exam.getExamId() + "/results", () -> loadResults(exam), results -> {
+                ViewCache.updateItems(resultsTable.getItems(), results);
+                resultsTable.setPlaceholder(new Label("No submissions"));
+            });
+        });
+    }
+
+    private static void showStatistics(GradeStatistics.Summary statistics, Label statisticsLabel,
+            BarChart<String, Number> distribution) {
+        if (statistics.count() == 0) {
+            statisticsLabel.setText("No graded submissions yet");
+            distribution.getData().clear();
+            return;
+        }
+        statisticsLabel.setText(String.format("Graded: %d   Mean: %.2f   Std dev: %.2f   Median: %.1f   P90: %.1f",
+                statistics.count(), statistics.mean(), statistics.standardDeviation(),
+                statistics.median(), statistics.percentile(90)));
+
+        long[] histogram = statistics.histogram();
+        int perBin = histogram.length / DISTRIBUTION_BINS;
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        for (int bin = 0; bin < DISTRIBUTION_BINS; bin++) {
+            long count = 0;
+            for (int i = bin * perBin; i < (bin + 1) * perBin; i++) {
+                count += histogram[i];
+            }
+            double from = bin * perBin * statistics.bucketWidth();
+            double to = (bin + 1) * perBin * statistics.bucketWidth();
+            series.getData().add(new XYChart.Data<>(String.format("%.0f-%.0f", from, to), count));
+        }
+        distribution.getData().setAll(List.of(series));
+    }
+
+    private void showItemAnalysis(Exam exam) {
+        viewCache.show(stage, viewKey() + "/items/" + exam.getExamId(), () -> buildItemAnalysisView(exam));
+    }
+
+    private ViewCache.View buildItemAnalysisView(Exam exam) {
+        VBox itemsBox = new VBox(10);
+        itemsBox.setPadding(new Insets(20));
+        itemsBox.setAlignment(Pos.TOP_CENTER);
+
+        Label summary = new Label();
+        TableView<ItemAnalysis.Item> itemTable = new TableView<>();
+        itemTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<ItemAnalysis.Item, String> questionCol = new TableColumn<>("Question");
+        questionCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().question().getQuestionId() + ". " + data.getValue().question().getContent()));
+
+        TableColumn<ItemAnalysis.Item, String> difficultyCol = new TableColumn<>("Correct");
+        difficultyCol.setCellValueFactory(data -> new SimpleStringProperty(
+                String.format("%.1f%%", data.getValue().difficulty() * 100)));
+
+        TableColumn<ItemAnalysis.Item, String> discriminationCol = new TableColumn<>("Discrimination");
+        discriminationCol.setCellValueFactory(data -> new SimpleStringProperty(
+                Double.isNaN(data.getValue().discrimination()) ? "-"
+                        : String.format("%.2f", data.getValue().discrimination())));
+
+        TableColumn<ItemAnalysis.Item, String> optionsCol = new TableColumn<>("Chosen Options");
+        optionsCol.setCellValueFactory(data -> new SimpleStringProperty(formatOptions(data.getValue())));
+
+        itemTable.getColumns().addAll(questionCol, difficultyCol, discriminationCol, optionsCol);
+        itemTable.setPlaceholder(new Label("Loading..."));
+
+        Button backBtn = new Button("Back");
+        backBtn.setOnAction(e -> {
+            loader.cancelAll();
+            show();
+        });
+
+        itemsBox.getChildren().addAll(new Label("Item Analysis: " + exam.getTitle()), summary, itemTable, backBtn);
+
+        Scene scene = new Scene(itemsBox, 800, 600);
+        return new ViewCache.View(scene, title(), () -> loader.load(
+                "exam/" + exam.getExamId() + "/items", () -> examService.analyzeItems(exam.getExamId()), analysis -> {
+                    summary.setText(analysis.getSubmissions() == 0 ? "No submissions"
+                            : String.format("Submissions: %d   Mean score: %.2f", analysis.getSubmissions(),
+                                    analysis.getMeanScore()));
+                    ViewCache.updateItems(itemTable.getItems(), analysis.getItems());
+                    itemTable.setPlaceholder(new Label("No submissions"));
+                }));
+    }
+
+    private static String formatOptions(ItemAnalysis.Item item) {
+        long[] counts = item.optionCounts();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            text.append((char) ('A' + i)).append(": ").append(counts[i]).append("  ");
+        }
+        if (item.otherResponses() > 0) {
+            text.append("Other: ").append(item.otherResponses());
+        }
+        return text.toString().trim();
     }
 
     private void showScoreEditor(Exam exam) {
+        viewCache.show(stage, viewKey() + "/scores/" + exam.getExamId(), () -> buildScoreEditorView(exam));
+    }
+
+    private ViewCache.View buildScoreEditorView(Exam exam) {
         VBox editorBox = new VBox(10);
         editorBox.setPadding(new Insets(20));
         editorBox.setAlignment(Pos.TOP_CENTER);
@@ -169,7 +400,7 @@ public class LecturerDashboard {
         scoreTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<ScoreEntry, String> studentCol = new TableColumn<>("Student");
-        studentCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().studentId));
+        studentCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().studentId()));
 
         TableColumn<ScoreEntry, String> scoreCol = new TableColumn<>("Total Score");
         scoreCol.setCellFactory(col -> new TableCell<ScoreEntry, String>() {
@@ -188,12 +419,17 @@ public class LecturerDashboard {
                 try {
                     float newScore = Float.parseFloat(textField.getText());
                     if (newScore >= 0 && newScore <= 100) {
-
-                        List<Answer> answers = studentAnswers.get(entry.studentId).get(exam.getExamId());
-                        answers.forEach(answer -> answer.setTotalScore(newScore));
+                        examService.updateScore(entry.studentId(), exam.getExamId(), newScore)
+                                .exceptionally(error -> {
+                                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                            ? error.getCause() : error;
+                                    Events.warn("score.save_failed", "studentId", entry.studentId(),
+                                            "examId", exam.getExamId(), "error", cause.getMessage());
+                                    return null;
+                                });
                     }
                 } catch (NumberFormatException ex) {
-                    textField.setText(String.valueOf(entry.answer.getTotalScore()));
+                    textField.setText(String.valueOf(entry.answer().getTotalScore()));
                 }
             }
 
@@ -204,7 +440,7 @@ public class LecturerDashboard {
                     setGraphic(null);
                 } else {
                     ScoreEntry entry = getTableView().getItems().get(getIndex());
-                    textField.setText(String.format("%.1f", entry.answer.getTotalScore()));
+                    textField.setText(String.format("%.1f", entry.answer().getTotalScore()));
                     setGraphic(textField);
                 }
             }
@@ -212,38 +448,49 @@ public class LecturerDashboard {
 
         TableColumn<ScoreEntry, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(
-                data -> new SimpleStringProperty(data.getValue().answer.isGraded() ? "Graded" : "Ungraded"));
+                data -> new SimpleStringProperty(data.getValue().answer().isGraded() ? "Graded" : "Ungraded"));
 
         scoreTable.getColumns().addAll(studentCol, scoreCol, statusCol);
 
-        Map<String, Answer> studentTotalScores = new HashMap<>();
-        studentAnswers.forEach((studentId, examAnswers) -> {
-            List<Answer> answers = examAnswers.get(exam.getExamId());
-            if (answers != null && !answers.isEmpty()) {
-                Answer firstAnswer = answers.get(0);
-                studentTotalScores.put(studentId, firstAnswer);
-                scoreTable.getItems().add(new ScoreEntry(studentId, "Q1", firstAnswer));
-            }
-        });
+        scoreTable.setPlaceholder(new Label("Loading..."));
 
         Button autoGradeBtn = new Button("Auto Grade");
         Button saveBtn = new Button("Save Changes");
         Button backBtn = new Button("Back");
 
-        autoGradeBtn.setOnAction(e -> {
-            studentAnswers.forEach((studentId, examAnswers) -> {
-                List<Answer> answers = examAnswers.get(exam.getExamId());
-                if (answers != null) {
-                    float totalScore = exam.calculateScore(answers);
+        ProgressBar gradingProgress = new ProgressBar(0);
+        gradingProgress.setVisible(false);
+        GradingEngine.GradingJob[] runningJob = new GradingEngine.GradingJob[1];
 
-                    answers.forEach(answer -> answer.setTotalScore(totalScore));
-                }
-            });
-            scoreTable.refresh();
+        autoGradeBtn.setOnAction(e -> {
+            autoGradeBtn.setDisable(true);
+            gradingProgress.setProgress(0);
+            gradingProgress.setVisible(true);
+
+            GradingEngine.GradingJob job = examService.autoGrade(exam,
+                    (graded, total) -> Platform.runLater(() -> gradingProgress.setProgress((double) graded / total)));
+            runningJob[0] = job;
+            job.getResult().whenComplete((result, error) -> Platform.runLater(() -> {
+                runningJob[0] = null;
+                autoGradeBtn.setDisable(false);
+                gradingProgress.setVisible(false);
+                if (result != null)
+                    scoreTable.refresh();
+            }));
         });
 
-        saveBtn.setOnAction(e -> show());
-        backBtn.setOnAction(e -> show());
+        saveBtn.setOnAction(e -> {
+            if (runningJob[0] != null)
+                runningJob[0].cancel();
+            loader.cancelAll();
+            show();
+        });
+        backBtn.setOnAction(e -> {
+            if (runningJob[0] != null)
+                runningJob[0].cancel();
+            loader.cancelAll();
+            show();
+        });
 
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
@@ -252,63 +499,75 @@ public class LecturerDashboard {
         editorBox.getChildren().addAll(
                 new Label("Edit Scores: " + exam.getTitle()),
                 scoreTable,
+                gradingProgress,
                 buttonBox);
 
         Scene scene = new Scene(new ScrollPane(editorBox), 800, 600);
-        stage.setScene(scene);
+        return new ViewCache.View(scene, title(), () -> loader.load(
+                "exam/" + exam.getExamId() + "/scores", () -> loadScoreEntries(exam), entries -> {
+                    ViewCache.updateItems(scoreTable.getItems(), entries);
+                    scoreTable.setPlaceholder(new Label("No submissions"));
+                    scoreTable.refresh();
+                }));
     }
 
-    private void loadExams(TableView<ExamEntry> table) {
-        exams.values().forEach(exam -> table.getItems().add(new ExamEntry(exam)));
+    private List<ExamEntry> loadExams() {
+        List<ExamEntry> entries = new ArrayList<>();
+        examService.getExams().forEach(exam -> entries.add(new ExamEntry(exam)));
+        entries.sort(Comparator.comparing(entry -> entry.exam().getExamId()));
+        return entries;
     }
 
-    private void loadActivityLogs(Exam exam, ListView<String> logsList) {
-        logsList.getItems().clear();
-        examLogs.forEach((key, logs) -> {
-            if (key.contains(exam.getExamId())) {
-                String[] parts = key.split("_");
-                String studentId = parts[0];
-                logsList.getItems().add("Student: " + studentId);
-                logs.forEach(log -> logsList.getItems().add("  " + log));
-                logsList.getItems().add("");
-            }
+    private List<ScoreEntry> loadScoreEntries(Exam exam) {
+        List<ScoreEntry> entries = new ArrayList<>();
+        examService.getSubmissionsForExam(exam.getExamId()).forEach((studentId, answers) -> {
+            if (!answers.isEmpty())
+                entries.add(new ScoreEntry(studentId, "Q1", answers.get(0)));
         });
+        entries.sort(Comparator.comparing(ScoreEntry::studentId));
+        return entries;
     }
 
-    private Exam findExamByTitle(String title) {
-        return exams.values().stream()
-                .filter(e -> e.getTitle().equals(title))
-                .findFirst()
-                .orElse(null);
+    private void loadActivityLogs(Exam exam, String studentFilter, String actionFilter,
+            ListView<ActivityLogRows.Row> logsList, Label summary) {
+        int generation = ++logsGeneration;
+        summary.setText("Loading...");
+        CompletableFuture.supplyAsync(() -> ActivityLogRows.build(
+                examService.getLogsForExam(exam.getExamId()), studentFilter, actionFilter))
+                .whenComplete((rows, error) -> Platform.runLater(() -> {
+                    if (generation != logsGeneration)
+                        return;
+                    if (error != null) {
+                        summary.setText("Could not load logs");
+                        return;
+                    }
+                    logsList.setItems(FXCollections.observableList(rows));
+                    summary.setText(rows.getStudentCount() + " students, " + rows.getEntryCount() + " events");
+                }));
     }
 
-    private static class ExamEntry {
-        final Exam exam;
-
-        ExamEntry(Exam exam) {
-            this.exam = exam;
+    private static class ActivityLogCell extends ListCell<ActivityLogRows.Row> {
+        @Override
+        protected void updateItem(ActivityLogRows.Row row, boolean empty) {
+            super.updateItem(row, empty);
+            if (empty || row == null) {
+                setText(null);
+            } else if (row.isHeader()) {
+                setText("Student: " + row.studentId());
+            } else if (row.entry() != null) {
+                setText("  " + row.entry());
+            } else {
+                setText("");
+            }
         }
     }
 
-    private static class StudentResult {
-        final String studentId;
-        final float score;
-
-        StudentResult(String studentId, float score) {
-            this.studentId = studentId;
-            this.score = score;
-        }
+    private record ExamEntry(Exam exam) {
     }
 
-    private static class ScoreEntry {
-        final String studentId;
-        final String questionId;
-        final Answer answer;
+    private record StudentResult(String studentId, float score) {
+    }
 
-        ScoreEntry(String studentId, String questionId, Answer answer) {
-            this.studentId = studentId;
-            this.questionId = questionId;
-            this.answer = answer;
-        }
+    private record ScoreEntry(String studentId, String questionId, Answer answer) {
     }
 }
@@ -0,0 +1,71 @@
+package com.end.lms.ui;
+
+import com.end.lms.AnswerSheet;
+import com.end.lms.Question;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.Toggle;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class QuestionCell extends ListCell<Integer> {
+    private final AnswerSheet sheet;
+    private final Runnable onAnswered;
+    private final VBox questionBox = new VBox(5);
+    private final Label questionLabel = new Label();
+    private final VBox optionsBox = new VBox(5);
+    private final ToggleGroup group = new ToggleGroup();
+    private final List<RadioButton> optionButtons = new ArrayList<>();
+    private boolean updating;
+
+    QuestionCell(AnswerSheet sheet, Runnable onAnswered) {
+        this.sheet = sheet;
+        this.onAnswered = onAnswered;
+        questionLabel.setWrapText(true);
+        questionBox.getChildren().addAll(questionLabel, optionsBox);
+        group.selectedToggleProperty().addListener((obs, oldToggle, newToggle) -> onToggle(newToggle));
+    }
+
+    private void onToggle(Toggle toggle) {
+        if (updating || isEmpty() || getItem() == null)
+            return;
+        sheet.select(getItem(), toggle == null ? -1 : optionButtons.indexOf(toggle));
+        onAnswered.run();
+    }
+
+    @Override
+    protected void updateItem(Integer slot, boolean empty) {
+        super.updateItem(slot, empty);
+        if (empty || slot == null) {
+            setGraphic(null);
+            return;
+        }
+
+        updating = true;
+        try {
+            Question question = sheet.questionAt(slot);
+            questionLabel.setText((slot + 1) + ". " + question.getContent());
+
+            List<String> options = question.getOptions();
+            while (optionButtons.size() < options.size()) {
+                RadioButton button = new RadioButton();
+                button.setToggleGroup(group);
+                optionButtons.add(button);
+            }
+            optionsBox.getChildren().setAll(optionButtons.subList(0, options.size()));
+            for (int i = 0; i < options.size(); i++) {
+                optionButtons.get(i).setText(options.get(i));
+            }
+
+            int selected = sheet.getSelected(slot);
+            group.selectToggle(selected >= 0 && selected < options.size() ? optionButtons.get(selected) : null);
+        } finally {
+            updating = false;
+        }
+        setGraphic(questionBox);
+    }
+}
@@ -1,6 +1,9 @@
 package com.end.lms.ui;
 
 import com.end.lms.*;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -8,27 +11,45 @@ import javafx.scene.control.*;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 public class StudentDashboard {
     private final Student student;
     private final Stage stage;
-    private final Map<String, Exam> exams;
-    private final Map<String, Map<String, List<Answer>>> studentAnswers;
-    private final Map<String, List<KeyLogEntry>> examLogs;
-
-    public StudentDashboard(Stage stage, Student student,
-            Map<String, Exam> exams,
-            Map<String, Map<String, List<Answer>>> studentAnswers,
-            Map<String, List<KeyLogEntry>> examLogs) {
+    private final ExamService examService;
+    private final DashboardLoader loader;
+    private final ViewCache viewCache;
+    private final Runnable onLogout;
+    private final BooleanSupplier sessionActive;
+    private ListView<String> examList;
+    private TableView<GradeEntry> gradeTable;
+    private ChangeListener<Boolean> focusListener;
+
+    public StudentDashboard(Stage stage, Student student, ExamService examService, DashboardLoader loader,
+            ViewCache viewCache, Runnable onLogout, BooleanSupplier sessionActive) {
         this.stage = stage;
         this.student = student;
-        this.exams = exams;
-        this.studentAnswers = studentAnswers;
-        this.examLogs = examLogs;
+        this.examService = examService;
+        this.loader = loader;
+        this.viewCache = viewCache;
+        this.onLogout = onLogout;
+        this.sessionActive = sessionActive;
+    }
+
+    private String viewKey() {
+        return "student/" + student.getUserId();
     }
 
     public void show() {
+        leaveExam();
+        viewCache.show(stage, viewKey(), this::buildView);
+    }
+
+    private ViewCache.View buildView() {
         VBox dashboard = new VBox(10);
         dashboard.setPadding(new Insets(20));
         dashboard.setAlignment(Pos.TOP_CENTER);
@@ -42,12 +63,32 @@ public class StudentDashboard {
                 createGradesTab());
 
         Button logoutBtn = new Button("Logout");
-        logoutBtn.setOnAction(e -> new ExamSystemUI().start(stage));
+        logoutBtn.setOnAction(e -> logout());
 
         dashboard.getChildren().addAll(welcomeLabel, tabPane, logoutBtn);
         Scene scene = new Scene(dashboard, 800, 600);
-        stage.setScene(scene);
-        stage.setTitle("Student Dashboard - " + student.getUsername());
+        return new ViewCache.View(scene, "Student Dashboard - " + student.getUsername(), this::refresh);
+    }
+
+    private void logout() {
+        loader.cancelAll();
+        viewCache.invalidatePrefix(viewKey());
+        onLogout.run();
+    }
+
+    private void refresh() {
+        if (!sessionActive.getAsBoolean()) {
+            logout();
+            return;
+        }
+        loader.load(viewKey() + "/exams", this::loadAvailableExams, titles -> {
+            ViewCache.updateItems(examList.getItems(), titles);
+            examList.setPlaceholder(new Label("No exams available"));
+        });
+        loader.load(viewKey() + "/grades", this::loadGrades, grades -> {
+            ViewCache.updateItems(gradeTable.getItems(), grades);
+            gradeTable.setPlaceholder(new Label("No grades yet"));
+        });
     }
 
     private Tab createAvailableExamsTab() {
@@ -57,22 +98,27 @@ public class StudentDashboard {
         VBox content = new VBox(10);
         content.setPadding(new Insets(10));
 
-        ListView<String> examList = new ListView<>();
-        for (Exam exam : exams.values()) {
-            if (exam.isStudentEligible(student)) {
-                examList.getItems().add(exam.getTitle());
-            }
-        }
+        examList = new ListView<>();
+        examList.setPlaceholder(new Label("Loading..."));
 
         Button takeExamBtn = new Button("Take Exam");
+        Label examStatus = new Label();
         takeExamBtn.setOnAction(e -> {
             String selectedExam = examList.getSelectionModel().getSelectedItem();
-            if (selectedExam != null) {
-                showExamInterface(findExamByTitle(selectedExam));
+            if (selectedExam == null)
+                return;
+            Exam exam = examService.findExamByTitle(selectedExam);
+            if (exam == null || !examService.isEligible(student, exam)) {
+                examStatus.setText(selectedExam + " is no longer available.");
+                refresh();
+                return;
             }
+            examStatus.setText("");
+            loader.cancelAll();
+            showExamInterface(exam);
         });
 
-        content.getChildren().addAll(new Label("Select an exam:"), examList, takeExamBtn);
+        content.getChildren().addAll(new Label("Select an exam:"), examList, takeExamBtn, examStatus);
         tab.setContent(content);
         return tab;
     }
@@ -84,14 +130,14 @@ public class StudentDashboard {
         VBox content = new VBox(10);
         content.setPadding(new Insets(10));
 
-        TableView<GradeEntry> gradeTable = new TableView<>();
+        gradeTable = new TableView<>();
         TableColumn<GradeEntry, String> examCol = new TableColumn<>("Exam");
         examCol.setCellValueFactory(data -> data.getValue().examNameProperty());
         TableColumn<GradeEntry, String> scoreCol = new TableColumn<>("Score");
         scoreCol.setCellValueFactory(data -> data.getValue().scoreProperty());
 
         gradeTable.getColumns().addAll(examCol, scoreCol);
-        loadGrades(gradeTable);
+        gradeTable.setPlaceholder(new Label("Loading..."));
 
         content.getChildren().addAll(new Label("Your Grades:"), gradeTable);
         tab.setContent(content);
@@ -106,53 +152,51 @@ public class StudentDashboard {
         Label examTitle = new Label(exam.getTitle());
         examTitle.setStyle("-fx-font-size: 18px;");
 
-        ExamSession session = new ExamSession();
-        session.addActiveStudent(student.getUserId());
-        session.startSession();
-        ExamKeyLogger keyLogger = session.getKeyLogger(student.getUserId());
-
-        VBox questionsBox = new VBox(10);
-        Map<String, ToggleGroup> answerGroups = new HashMap<>();
-        List<Answer> answers = new ArrayList<>();
-
-        for (Question question : exam.getQuestions()) {
-            VBox questionBox = new VBox(5);
-            Label questionLabel = new Label(question.getContent());
-            ToggleGroup group = new ToggleGroup();
-            answerGroups.put(question.getQuestionId(), group);
-
-            VBox optionsBox = new VBox(5);
-            for (String option : question.getOptions()) {
-                RadioButton rb = new RadioButton(option);
-                rb.setToggleGroup(group);
-                optionsBox.getChildren().add(rb);
-            }
+        ExamKeyLogger keyLogger = examService.beginAttempt(student, exam);
+        KeyActionRules keyActionRules = exam.getKeyActionRules();
 
-            questionBox.getChildren().addAll(questionLabel, optionsBox);
-            questionsBox.getChildren().add(questionBox);
+        AttemptJournal journal = openJournal(exam);
+        AnswerSheet sheet = journal != null ? journal.getSheet() : new AnswerSheet(exam.getAnswerKey());
+        Label progressLabel = new Label();
+        Runnable updateProgress = () -> progressLabel.setText(
+                "Answered " + sheet.getAnsweredCount() + " of " + sheet.size());
+        updateProgress.run();
+
+        List<Integer> slots = new ArrayList<>(sheet.size());
+        for (int slot = 0; slot < sheet.size(); slot++) {
+            slots.add(slot);
         }
+        ListView<Integer> questionList = new ListView<>(FXCollections.observableList(slots));
+        questionList.setCellFactory(list -> new QuestionCell(sheet, updateProgress));
+        questionList.setFocusTraversable(false);
+        VBox.setVgrow(questionList, Priority.ALWAYS);
 
         Button submitBtn = new Button("Submit Exam");
+        Label submitStatus = new Label();
         submitBtn.setOnAction(e -> {
-            session.endSession();
-            submitExam(exam, answerGroups, answers, session);
+            submitBtn.setDisable(true);
+            submitStatus.setText("Submitting...");
+            submitExam(exam, sheet, journal, error -> {
+                submitBtn.setDisable(false);
+                submitStatus.setText("Could not submit: " + error + ". Your answers are kept, please try again.");
+            });
         });
 
-        ScrollPane scrollPane = new ScrollPane(questionsBox);
-        scrollPane.setFitToWidth(true);
-
-        examBox.getChildren().addAll(examTitle, scrollPane, submitBtn);
+        examBox.getChildren().addAll(examTitle, progressLabel, questionList, submitBtn, submitStatus);
 
-        stage.focusedProperty().addListener((obs, oldValue, newValue) -> {
-            if (!newValue && session.isActive()) {
+        leaveExam();
+        focusListener = (obs, oldValue, newValue) -> {
+            if (!newValue && examService.isAttemptActive(student.getUserId(), exam.getExamId())) {
                 keyLogger.logWindowUnfocused();
             }
-        });
+        };
+        stage.focusedProperty().addListener(focusListener);
 
         Scene examScene = new Scene(examBox, 800, 600);
         examScene.addEventFilter(KeyEvent.ANY, event -> {
-            if (session.isActive()) {
-                keyLogger.logKeyEvent(event);
+            KeyAction action = KeyEventActions.classify(keyActionRules, event);
+            if (action != null && examService.isAttemptActive(student.getUserId(), exam.getExamId())) {
+                keyLogger.logKeyAction(action);
             }
         });
 
@@ -160,36 +204,59 @@ public class StudentDashboard {
         stage.setTitle("Exam: " + exam.getTitle());
     }
 
-    private void submitExam(Exam exam, Map<String, ToggleGroup> answerGroups,
-            List<Answer> answers, ExamSession session) {
-        for (Question question : exam.getQuestions()) {
-            ToggleGroup group = answerGroups.get(question.getQuestionId());
-            RadioButton selectedRB = (RadioButton) group.getSelectedToggle();
-            if (selectedRB != null) {
-                String answer = selectedRB.getText().substring(0, 1);
-                Answer studentAnswer = new Answer(student.getUserId(),
-                        exam.getExamId(), question.getQuestionId(), answer);
-                answers.add(studentAnswer);
-                student.submitAnswer(studentAnswer);
-            }
+    private void leaveExam() {
+        if (focusListener != null) {
+            stage.focusedProperty().removeListener(focusListener);
+            focusListener = null;
         }
+    }
 
-        studentAnswers.computeIfAbsent(student.getUserId(), k -> new HashMap<>())
-                .put(exam.getExamId(), answers);
+    private AttemptJournal openJournal(Exam exam) {
+        try {
+            return examService.openAttemptJournal(student, exam);
+        } catch (IOException e) {
+            Events.warn("autosave.open_failed", "studentId", student.getUserId(), "examId", exam.getExamId(),
+                    "error", e.getMessage());
+            return null;
+        }
+    }
 
-        String logKey = student.getUserId() + "_" + exam.getExamId();
-        examLogs.put(logKey, session.getStudentCheatingLogs(student.getUserId()));
+    private void submitExam(Exam exam, AnswerSheet sheet, AttemptJournal journal, Consumer<String> onFailure) {
+        List<Answer> answers = sheet.toAnswers(student.getUserId(), exam.getExamId());
+
+        examService.submit(student, exam, answers).whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                Events.warn("submit.failed", "studentId", student.getUserId(), "examId", exam.getExamId(),
+                        "error", cause.getMessage());
+                Platform.runLater(() -> onFailure.accept(cause.getMessage()));
+                return;
+            }
+            if (journal != null) {
+                examService.closeAttemptJournal(journal, true);
+            }
+            Platform.runLater(this::show);
+        });
+    }
 
-        session.endSession();
-        show();
+    private List<String> loadAvailableExams() {
+        List<String> titles = new ArrayList<>();
+        for (Exam exam : examService.getExams()) {
+            if (examService.isEligible(student, exam)) {
+                titles.add(exam.getTitle());
+            }
+        }
+        Collections.sort(titles);
+        return titles;
     }
 
-    private void loadGrades(TableView<GradeEntry> gradeTable) {
-        Map<String, List<Answer>> studentExamAnswers = studentAnswers.getOrDefault(student.getUserId(),
-                new HashMap<>());
+    private List<GradeEntry> loadGrades() {
+        Map<String, List<Answer>> studentExamAnswers = examService.getSubmissionsByStudent(student.getUserId());
+        List<GradeEntry> grades = new ArrayList<>();
 
         studentExamAnswers.forEach((examId, answers) -> {
-            Exam exam = exams.get(examId);
+            Exam exam = examService.getExam(examId);
             if (exam != null && !answers.isEmpty()) {
                 String scoreText;
                 if (answers.get(0).isGraded()) {
@@ -197,27 +264,14 @@ public class StudentDashboard {
                 } else {
                     scoreText = "Ungraded";
                 }
-                gradeTable.getItems().add(new GradeEntry(exam.getTitle(), scoreText));
+                grades.add(new GradeEntry(exam.getTitle(), scoreText));
             }
         });
+        grades.sort(Comparator.comparing(GradeEntry::examName));
+        return grades;
     }
 
-    private Exam findExamByTitle(String title) {
-        return exams.values().stream()
-                .filter(e -> e.getTitle().equals(title))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private static class GradeEntry {
-        private final String examName;
-        private final String score;
-
-        public GradeEntry(String examName, String score) {
-            this.examName = examName;
-            this.score = score;
-        }
-
+    private record GradeEntry(String examName, String score) {
         public javafx.beans.property.StringProperty examNameProperty() {
             return new javafx.beans.property.SimpleStringProperty(examName);
         }
@@ -0,0 +1,74 @@
+package com.end.lms.ui;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class ViewCache {
+    private static final int MAX_VIEWS = Integer.getInteger("lms.ui.max.views", 16);
+
+    private final Map<String, View> views = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+            return size() > MAX_VIEWS;
+        }
+    };
+
+    public record View(Scene scene, String title, Runnable refresh) {
+    }
+
+    public void show(Stage stage, String key, Supplier<View> builder) {
+        View view = views.get(key);
+        if (view == null) {
+            view = builder.get();
+            views.put(key, view);
+        }
+        if (stage.getScene() != view.scene()) {
+            stage.setScene(view.scene());
+        }
+        stage.setTitle(view.title());
+        if (view.refresh() != null) {
+            view.refresh().run();
+        }
+    }
+
+    public void invalidate(String key) {
+        views.remove(key);
+    }
+
+    public void invalidatePrefix(String prefix) {
+        String children = prefix + "/";
+        Iterator<String> keys = views.keySet().iterator();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (key.equals(prefix) || key.startsWith(children)) {
+                keys.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        views.clear();
+    }
+
+    public static <T> void updateItems(ObservableList<T> items, List<T> rows) {
+        int common = Math.min(items.size(), rows.size());
+        for (int i = 0; i < common; i++) {
+            T row = rows.get(i);
+            if (!items.get(i).equals(row)) {
+                items.set(i, row);
+            }
+        }
+        if (items.size() > rows.size()) {
+            items.remove(rows.size(), items.size());
+        } else if (rows.size() > common) {
+            items.addAll(rows.subList(common, rows.size()));
+        }
+    }
+}
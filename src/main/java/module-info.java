@@ -11,6 +11,7 @@ module com.end.lms {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
     requires java.desktop;
+    requires java.management;
 
     opens com.end.lms to javafx.fxml;
     exports com.end.lms;
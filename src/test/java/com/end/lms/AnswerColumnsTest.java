@@ -0,0 +1,94 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerColumnsTest {
+    @Test
+    void answersSurviveAKeyChangeAndGradeAgainstTheNewKey() {
+        Exam exam = exam("AC1", "A", "B");
+        AnswerColumns columns = new AnswerColumns("AC1", exam::getAnswerKey);
+        columns.put("AC1-S1", List.of(answer("AC1-S1", "AC1", "Q0", "A"), answer("AC1-S1", "AC1", "Q1", "C"),
+                answer("AC1-S1", "AC1", "Q2", "B"), answer("AC1-S1", "AC1", "Q1", "free text")));
+        columns.put("AC1-S2", List.of(answer("AC1-S2", "AC1", "Q1", "B")));
+        assertEquals(List.of(1f, 2f), scores(columns));
+
+        exam.getQuestions().get(1).setCorrectAnswer("C");
+        Question added = new Question("Q2", "Question 2", 4, "MULTIPLE_CHOICE");
+        added.addOption("A");
+        added.addOption("B");
+        added.setCorrectAnswer("B");
+        exam.addQuestion(added);
+
+        assertEquals(List.of(7f, 0f), scores(columns));
+        assertEquals(List.of("Q0=A", "Q1=C", "Q2=B", "Q1=free text"), contents(columns.get("AC1-S1")));
+        assertEquals(List.of("Q1=B"), contents(columns.get("AC1-S2")));
+    }
+
+    @Test
+    void resubmissionsAreCompactedWithoutLosingRows() {
+        Exam exam = exam("AC2", "A", "B", "C");
+        AnswerColumns columns = new AnswerColumns("AC2", exam::getAnswerKey);
+        List<String> expected = new ArrayList<>();
+        for (int s = 0; s < 20; s++) {
+            columns.put("AC2-S" + s, List.of(answer("AC2-S" + s, "AC2", "Q0", "A")));
+            expected.add("Q0=A");
+        }
+
+        for (int round = 1; round <= 3000; round++) {
+            int s = round % 20;
+            List<Answer> answers = new ArrayList<>();
+            for (int i = 0; i <= round % 3; i++) {
+                answers.add(answer("AC2-S" + s, "AC2", "Q" + i, i == 2 ? "other" : "ABC".substring(i, i + 1)));
+            }
+            columns.put("AC2-S" + s, answers);
+            expected.set(s, String.join(",", contents(answers)));
+        }
+
+        assertEquals(20, columns.size());
+        for (int s = 0; s < 20; s++) {
+            assertEquals(expected.get(s), String.join(",", contents(columns.get("AC2-S" + s))));
+        }
+        assertTrue(columns.answerCount() <= 3 * 256, "answerCount " + columns.answerCount());
+    }
+
+    private static List<Float> scores(AnswerColumns columns) {
+        GradingEngine.Gradable grading = columns.grading();
+        List<Float> scores = new ArrayList<>();
+        for (int row = 0; row < grading.size(); row++) {
+            scores.add(grading.score(row));
+        }
+        return scores;
+    }
+
+    private static List<String> contents(List<Answer> answers) {
+        List<String> contents = new ArrayList<>();
+        for (Answer answer : answers) {
+            contents.add(answer.getQuestionId() + "=" + answer.getContent());
+        }
+        return contents;
+    }
+
+    private static Answer answer(String studentId, String examId, String questionId, String content) {
+        return new Answer(studentId, examId, questionId, content);
+    }
+
+    private static Exam exam(String examId, String... correct) {
+        Exam exam = new Exam(examId, "Columns " + examId);
+        for (int q = 0; q < correct.length; q++) {
+            Question question = new Question("Q" + q, "Question " + q, q + 1, "MULTIPLE_CHOICE");
+            for (String choice : new String[] { "A", "B", "C", "D" }) {
+                question.addOption(choice);
+            }
+            question.setCorrectAnswer(correct[q]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+        return exam;
+    }
+}
@@ -0,0 +1,124 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttemptJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenResumesSelections() throws IOException {
+        AnswerKey key = key("Q1", "Q2", "Q3");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Path file = dir.resolve("S1.journal");
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                journal.getSheet().select(0, 1);
+                journal.getSheet().select(2, 3);
+                journal.getSheet().select(2, 0);
+                journal.getSheet().select(1, 2);
+                journal.getSheet().select(1, -1);
+            }
+
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                AnswerSheet sheet = journal.getSheet();
+                assertEquals(1, sheet.getSelected(0));
+                assertEquals(-1, sheet.getSelected(1));
+                assertEquals(0, sheet.getSelected(2));
+                assertEquals(2, sheet.getAnsweredCount());
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void tornTailIsDropped() throws IOException {
+        AnswerKey key = key("Q1", "Q2");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Path file = dir.resolve("S1.journal");
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                journal.getSheet().select(1, 3);
+            }
+            long size = Files.size(file);
+            Files.write(file, new byte[] { 1, 0 }, StandardOpenOption.APPEND);
+
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                assertEquals(3, journal.getSheet().getSelected(1));
+                assertEquals(1, journal.getSheet().getAnsweredCount());
+            }
+            assertEquals(size, Files.size(file));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void journalForAnotherExamOrQuestionSetIsReset() throws IOException {
+        AnswerKey key = key("Q1", "Q2");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Path file = dir.resolve("S1.journal");
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                journal.getSheet().select(0, 2);
+            }
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key("Q2", "Q1"), scheduler)) {
+                assertEquals(0, journal.getSheet().getAnsweredCount());
+                journal.getSheet().select(0, 2);
+            }
+            try (AttemptJournal journal = AttemptJournal.open(file, "E2", key("Q2", "Q1"), scheduler)) {
+                assertEquals(0, journal.getSheet().getAnsweredCount());
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void reopenCompactsRepeatedChanges() throws IOException {
+        AnswerKey key = key("Q1", "Q2");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Path file = dir.resolve("S1.journal");
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                for (int i = 0; i < 200; i++) {
+                    journal.getSheet().select(0, i % 4);
+                }
+            }
+            long size = Files.size(file);
+
+            try (AttemptJournal journal = AttemptJournal.open(file, "E1", key, scheduler)) {
+                assertEquals(199 % 4, journal.getSheet().getSelected(0));
+            }
+            assertTrue(Files.size(file) < size - 190 * 4);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static AnswerKey key(String... questionIds) {
+        Exam exam = new Exam("journal", "Journal");
+        for (String questionId : questionIds) {
+            Question question = new Question(questionId, "Question " + questionId, 1, "MULTIPLE_CHOICE");
+            for (String choice : new String[] { "A", "B", "C", "D" }) {
+                question.addOption(choice);
+            }
+            question.setCorrectAnswer("A");
+            exam.addQuestion(question);
+        }
+        exam.publish();
+        return exam.getAnswerKey();
+    }
+}
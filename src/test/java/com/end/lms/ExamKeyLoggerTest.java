@@ -0,0 +1,59 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExamKeyLoggerTest {
+    @Test
+    void eventsPastCapacityAreDroppedAndCounted() {
+        ExamKeyLogger logger = new ExamKeyLogger(4);
+        for (int i = 0; i < 10; i++) {
+            logger.logKeyAction(i % 2 == 0 ? KeyAction.COPY : KeyAction.PASTE);
+        }
+
+        List<KeyLogEntry> logs = logger.getCheatingLogs();
+        assertEquals(4, logs.size());
+        assertEquals(List.of("Pressed Ctrl+C", "Pressed Ctrl+V", "Pressed Ctrl+C", "Pressed Ctrl+V"),
+                logs.stream().map(KeyLogEntry::getAction).toList());
+        assertEquals(6, logger.getDroppedCount());
+    }
+
+    @Test
+    void repeatedActionWithinTheDelayIsLoggedOnce() {
+        ExamKeyLogger logger = new ExamKeyLogger(4);
+        logger.logKeyAction(KeyAction.PRINT_SCREEN);
+        logger.logKeyAction(KeyAction.PRINT_SCREEN);
+        logger.logWindowUnfocused();
+        logger.logWindowUnfocused();
+
+        List<KeyLogEntry> logs = logger.getCheatingLogs();
+        assertEquals(List.of("Pressed PrtSc", "Switching Window"), logs.stream().map(KeyLogEntry::getAction).toList());
+        assertEquals(0, logger.getDroppedCount());
+    }
+
+    @Test
+    void concurrentWritersNeverExceedCapacity() throws InterruptedException {
+        ExamKeyLogger logger = new ExamKeyLogger(64);
+        KeyAction[] actions = KeyAction.values();
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int offset = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    logger.logKeyAction(actions[(i + offset) % actions.length]);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<KeyLogEntry> logs = logger.getCheatingLogs();
+        assertEquals(64, logs.size());
+        assertEquals(64, logs.stream().filter(log -> log.getAction() != null).count());
+    }
+}
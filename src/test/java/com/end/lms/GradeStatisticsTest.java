@@ -0,0 +1,96 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeStatisticsTest {
+    private static final float MAX_SCORE = 60;
+
+    @Test
+    void addAndRemoveMatchARescan() {
+        Random random = new Random(42);
+        GradeStatistics statistics = new GradeStatistics(MAX_SCORE);
+        List<Float> scores = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            if (!scores.isEmpty() && random.nextInt(3) == 0) {
+                statistics.remove(scores.remove(random.nextInt(scores.size())));
+            } else {
+                float score = random.nextInt((int) MAX_SCORE * 2 + 1) / 2f;
+                statistics.add(score);
+                scores.add(score);
+            }
+            if (step % 997 == 0) {
+                assertMatchesRescan(scores, statistics.summary());
+            }
+        }
+        assertMatchesRescan(scores, statistics.summary());
+    }
+
+    @Test
+    void removingEveryScoreResets() {
+        GradeStatistics statistics = new GradeStatistics(MAX_SCORE);
+        statistics.add(10);
+        statistics.add(50);
+        statistics.remove(50);
+        statistics.remove(10);
+
+        GradeStatistics.Summary summary = statistics.summary();
+        assertEquals(0, summary.count());
+        assertTrue(Double.isNaN(summary.mean()));
+        assertTrue(Double.isNaN(summary.median()));
+        assertArrayEquals(new long[GradeStatistics.BUCKETS], summary.histogram());
+    }
+
+    @Test
+    void percentileStaysWithinOneBucketOfTheExactValue() {
+        GradeStatistics statistics = new GradeStatistics(MAX_SCORE);
+        List<Float> scores = new ArrayList<>();
+        for (int i = 0; i <= 120; i++) {
+            statistics.add(i / 2f);
+            scores.add(i / 2f);
+        }
+
+        GradeStatistics.Summary summary = statistics.summary();
+        for (int percentile : new int[] { 10, 50, 90 }) {
+            double exact = scores.get((int) Math.ceil(percentile / 100.0 * scores.size()) - 1);
+            assertEquals(exact, summary.percentile(percentile), summary.bucketWidth());
+        }
+    }
+
+    @Test
+    void nonPositiveMaxScoreFallsBackToOneHundred() {
+        assertEquals(100f, new GradeStatistics(0).summary().maxScore());
+    }
+
+    private static void assertMatchesRescan(List<Float> scores, GradeStatistics.Summary summary) {
+        assertEquals(scores.size(), summary.count());
+        if (scores.isEmpty())
+            return;
+
+        double sum = 0;
+        long[] histogram = new long[GradeStatistics.BUCKETS];
+        for (float score : scores) {
+            sum += score;
+            int bucket = (int) (score / MAX_SCORE * GradeStatistics.BUCKETS);
+            histogram[Math.max(0, Math.min(GradeStatistics.BUCKETS - 1, bucket))]++;
+        }
+        double mean = sum / scores.size();
+        double squares = 0;
+        for (float score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        double standardDeviation = scores.size() > 1 ? Math.sqrt(squares / (scores.size() - 1)) : 0;
+
+        assertEquals(mean, summary.mean(), 1e-9);
+        assertEquals(standardDeviation, summary.standardDeviation(), 1e-6);
+        assertArrayEquals(histogram, summary.histogram());
+    }
+}
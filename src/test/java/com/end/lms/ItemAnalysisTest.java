@@ -0,0 +1,178 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemAnalysisTest {
+    private static final String[] CHOICES = { "A", "B", "C", "D" };
+
+    @Test
+    void matchesANaiveTwoPassComputation() {
+        Exam exam = exam("IA1", 12);
+        SubmissionStore store = new SubmissionStore(examId -> exam.getAnswerKey());
+        Random random = new Random(7);
+        List<List<Answer>> submissions = new ArrayList<>();
+
+        for (int s = 0; s < 400; s++) {
+            String studentId = "IA1-S" + s;
+            double ability = random.nextDouble();
+            List<Answer> answers = new ArrayList<>();
+            for (int q = 0; q < 12; q++) {
+                int roll = random.nextInt(20);
+                if (roll == 0)
+                    continue;
+                String content;
+                if (roll == 1) {
+                    content = "free text";
+                } else if (random.nextDouble() < ability) {
+                    content = CHOICES[q % CHOICES.length];
+                } else {
+                    content = CHOICES[random.nextInt(CHOICES.length)];
+                }
+                answers.add(new Answer(studentId, "IA1", "Q" + q, content));
+            }
+            if (s % 50 == 0) {
+                answers.add(new Answer(studentId, "IA1", "unknown", "A"));
+            }
+            store.put(studentId, "IA1", answers);
+            submissions.add(answers);
+        }
+
+        ItemAnalysis analysis = store.analyzeItems("IA1");
+        List<Question> questions = exam.getQuestions();
+        assertEquals(submissions.size(), analysis.getSubmissions());
+        assertEquals(questions.size(), analysis.getItems().size());
+
+        int rows = submissions.size();
+        int[][] correct = new int[rows][questions.size()];
+        double[] totals = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            for (Answer answer : submissions.get(row)) {
+                int slot = slotOf(questions, answer.getQuestionId());
+                if (slot >= 0 && questions.get(slot).validateAnswer(answer.getContent())) {
+                    correct[row][slot] = 1;
+                    totals[row] += questions.get(slot).getScore();
+                }
+            }
+        }
+        double meanTotal = 0;
+        for (double total : totals) {
+            meanTotal += total;
+        }
+        assertEquals(meanTotal / rows, analysis.getMeanScore(), 1e-9);
+
+        for (int slot = 0; slot < questions.size(); slot++) {
+            Question question = questions.get(slot);
+            long responses = 0;
+            long correctCount = 0;
+            long other = 0;
+            long[] optionCounts = new long[question.getOptions().size()];
+            double[] item = new double[rows];
+            double[] rest = new double[rows];
+            for (int row = 0; row < rows; row++) {
+                for (Answer answer : submissions.get(row)) {
+                    if (!answer.getQuestionId().equals(question.getQuestionId()))
+                        continue;
+                    responses++;
+                    String content = answer.getContent();
+                    int option = content.length() == 1 ? content.charAt(0) - 'A' : -1;
+                    if (option >= 0 && option < optionCounts.length) {
+                        optionCounts[option]++;
+                    } else {
+                        other++;
+                    }
+                }
+                correctCount += correct[row][slot];
+                item[row] = correct[row][slot];
+                rest[row] = totals[row] - question.getScore() * correct[row][slot];
+            }
+
+            ItemAnalysis.Item actual = analysis.getItems().get(slot);
+            assertEquals(question, actual.question());
+            assertEquals(responses, actual.responses());
+            assertEquals(correctCount, actual.correct());
+            assertEquals((double) correctCount / rows, actual.difficulty(), 1e-12);
+            assertArrayEquals(optionCounts, actual.optionCounts());
+            assertEquals(other, actual.otherResponses());
+            assertEquals(pearson(item, rest), actual.discrimination(), 1e-9);
+        }
+    }
+
+    @Test
+    void itemsWithoutVarianceHaveNoDiscrimination() {
+        Exam exam = exam("IA2", 2);
+        SubmissionStore store = new SubmissionStore(examId -> exam.getAnswerKey());
+        for (int s = 0; s < 10; s++) {
+            String studentId = "IA2-S" + s;
+            store.put(studentId, "IA2", List.of(
+                    new Answer(studentId, "IA2", "Q0", "A"),
+                    new Answer(studentId, "IA2", "Q1", s % 2 == 0 ? "B" : "C")));
+        }
+
+        ItemAnalysis analysis = store.analyzeItems("IA2");
+        assertEquals(1.0, analysis.getItems().get(0).difficulty());
+        assertTrue(Double.isNaN(analysis.getItems().get(0).discrimination()));
+    }
+
+    @Test
+    void emptyExamHasNoItems() {
+        Exam exam = exam("IA3", 3);
+        SubmissionStore store = new SubmissionStore(examId -> exam.getAnswerKey());
+
+        ItemAnalysis analysis = store.analyzeItems("IA3");
+        assertEquals(0, analysis.getSubmissions());
+        assertTrue(analysis.getItems().isEmpty());
+    }
+
+    private static Exam exam(String examId, int questionCount) {
+        Exam exam = new Exam(examId, "Item analysis");
+        for (int q = 0; q < questionCount; q++) {
+            Question question = new Question("Q" + q, "Question " + q, 1 + q % 3, "MULTIPLE_CHOICE");
+            for (String choice : CHOICES) {
+                question.addOption(choice);
+            }
+            question.setCorrectAnswer(CHOICES[q % CHOICES.length]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+        return exam;
+    }
+
+    private static int slotOf(List<Question> questions, String questionId) {
+        for (int slot = 0; slot < questions.size(); slot++) {
+            if (questions.get(slot).getQuestionId().equals(questionId))
+                return slot;
+        }
+        return -1;
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < x.length; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+        meanX /= x.length;
+        meanY /= y.length;
+
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        if (varianceX <= 0 || varianceY <= 0)
+            return Double.NaN;
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
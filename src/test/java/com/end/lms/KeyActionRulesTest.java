@@ -0,0 +1,50 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyActionRulesTest {
+    @Test
+    void rulesMatchTheirModifiersAndAnySuperset() {
+        KeyActionRules rules = KeyActionRules.parse("Ctrl+C = COPY\nPRINTSCREEN = PRINT_SCREEN");
+        int c = KeyActionRules.keyIndexOf("C");
+
+        assertEquals(KeyAction.COPY, rules.classify(c, KeyActionRules.CTRL));
+        assertEquals(KeyAction.COPY, rules.classify(c, KeyActionRules.CTRL | KeyActionRules.SHIFT));
+        assertNull(rules.classify(c, 0));
+        assertNull(rules.classify(c, KeyActionRules.ALT));
+        assertEquals(KeyAction.PRINT_SCREEN,
+                rules.classify(KeyActionRules.keyIndexOf("PRINTSCREEN"), KeyActionRules.ALT));
+    }
+
+    @Test
+    void firstMatchingRuleWins() {
+        KeyActionRules rules = KeyActionRules.parse("Alt+TAB = ALT_TAB\nTAB = CTRL_TAB");
+        int tab = KeyActionRules.keyIndexOf("tab");
+
+        assertEquals(KeyAction.ALT_TAB, rules.classify(tab, KeyActionRules.ALT));
+        assertEquals(KeyAction.CTRL_TAB, rules.classify(tab, KeyActionRules.CTRL));
+    }
+
+    @Test
+    void keyNamesAreNormalized() {
+        assertEquals(KeyActionRules.keyIndexOf("PAGE_UP"), KeyActionRules.keyIndexOf("page up"));
+        assertEquals(KeyActionRules.keyIndexOf("DIGIT4"), KeyActionRules.keyIndexOf("4"));
+        assertTrue(KeyActionRules.keyIndexOf("F24") >= 0);
+        assertEquals(-1, KeyActionRules.keyIndexOf("PRNTSCREEN"));
+    }
+
+    @Test
+    void unknownKeysAndActionsAreRejected() {
+        IllegalArgumentException key = assertThrows(IllegalArgumentException.class,
+                () -> KeyActionRules.parse("# comment\nCtrl+PRNTSCREEN = PRINT_SCREEN"));
+        assertTrue(key.getMessage().startsWith("Line 2: unknown key"));
+        assertThrows(IllegalArgumentException.class, () -> KeyActionRules.parse("Ctrl+C = STEAL"));
+        assertThrows(IllegalArgumentException.class, () -> KeyActionRules.parse("Ctrl+C+V = COPY"));
+        assertThrows(IllegalArgumentException.class, () -> KeyActionRules.parse("Ctrl = COPY"));
+    }
+}
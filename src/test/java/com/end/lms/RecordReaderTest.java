@@ -0,0 +1,126 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordReaderTest {
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    @Test
+    void csvReadsQuotedFieldsWithCommasAndEscapedQuotes() throws IOException {
+        RecordReader reader = RecordReader.csv(new StringReader(
+                "id,content\nQ1,\"Pick one, or \"\"none\"\"\"\n"));
+
+        RecordReader.Record record = reader.next();
+        assertNull(record.error());
+        assertEquals("Q1", record.get("id"));
+        assertEquals("Pick one, or \"none\"", record.get("content"));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvAcceptsCrlfLineEndings() throws IOException {
+        RecordReader reader = RecordReader.csv(new StringReader("id,score\r\nQ1,10\r\nQ2,20\r\n"));
+
+        RecordReader.Record first = reader.next();
+        RecordReader.Record second = reader.next();
+        assertEquals("10", first.get("score"));
+        assertEquals(2, first.line());
+        assertEquals("Q2", second.get("id"));
+        assertEquals("20", second.get("score"));
+        assertEquals(3, second.line());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvKeepsNewlinesInsideQuotedFields() throws IOException {
+        RecordReader reader = RecordReader.csv(new StringReader(
+                "id,content\nQ1,\"first line\r\nsecond line\"\nQ2,plain\n"));
+
+        RecordReader.Record first = reader.next();
+        RecordReader.Record second = reader.next();
+        assertEquals("first line\r\nsecond line", first.get("content"));
+        assertEquals(2, first.line());
+        assertEquals("plain", second.get("content"));
+        assertEquals(4, second.line());
+    }
+
+    @Test
+    void csvReportsRowsWithTheWrongColumnCount() throws IOException {
+        RecordReader reader = RecordReader.csv(new StringReader("id,score\nQ1\nQ2,20\n"));
+
+        RecordReader.Record bad = reader.next();
+        assertNotNull(bad.error());
+        assertEquals(2, bad.line());
+        assertEquals("20", reader.next().get("score"));
+    }
+
+    @Test
+    void csvSplitsPipeSeparatedLists() throws IOException {
+        RecordReader reader = RecordReader.csv(new StringReader("options\nA|B|C\n"));
+
+        assertEquals(List.of("A", "B", "C"), reader.next().getList("options"));
+    }
+
+    @Test
+    void csvRejectsOversizeFields() {
+        RecordReader reader = RecordReader.csv(new StringReader(
+                "id,content\nQ1," + "x".repeat(MAX_RECORD_CHARS + 1) + "\n"));
+
+        IOException error = assertThrows(IOException.class, reader::next);
+        assertTrue(error.getMessage().startsWith("Line 2:"), error.getMessage());
+    }
+
+    @Test
+    void csvRejectsUnterminatedQuotes() {
+        RecordReader reader = RecordReader.csv(new StringReader("id,content\nQ1,\"open\n"));
+
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void jsonLinesReadsStringsArraysAndEscapes() throws IOException {
+        RecordReader reader = RecordReader.jsonLines(new StringReader(
+                "{\"id\": \"Q1\", \"score\": 10, \"options\": [\"A\", \"B\"], \"content\": \"say \\\"hi\\\"\\n\"}\r\n"));
+
+        RecordReader.Record record = reader.next();
+        assertNull(record.error());
+        assertEquals("Q1", record.get("id"));
+        assertEquals("10", record.get("score"));
+        assertEquals(List.of("A", "B"), record.getList("options"));
+        assertEquals("say \"hi\"\n", record.get("content"));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void jsonLinesSkipsOversizeRecordsAndContinues() throws IOException {
+        RecordReader reader = RecordReader.jsonLines(new StringReader(
+                "{\"id\": \"" + "x".repeat(MAX_RECORD_CHARS) + "\"}\n{\"id\": \"Q2\"}\n"));
+
+        RecordReader.Record oversize = reader.next();
+        assertNotNull(oversize.error());
+        assertEquals(1, oversize.line());
+        RecordReader.Record next = reader.next();
+        assertEquals("Q2", next.get("id"));
+        assertEquals(2, next.line());
+    }
+
+    @Test
+    void jsonLinesReportsMalformedRecords() throws IOException {
+        RecordReader reader = RecordReader.jsonLines(new StringReader("{\"id\": }\n\n{\"id\": \"Q2\"}\n"));
+
+        assertNotNull(reader.next().error());
+        RecordReader.Record next = reader.next();
+        assertEquals("Q2", next.get("id"));
+        assertEquals(3, next.line());
+    }
+}
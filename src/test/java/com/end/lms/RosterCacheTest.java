@@ -0,0 +1,62 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RosterCacheTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void cachedUsersKeepTheirRoleAndPasswordHash() throws IOException {
+        Path file = dir.resolve("roster.cache");
+        byte[] digest = digest("user_id,username,password\nS1,alice,secret\n");
+        RosterCache.write(file, digest, List.of(
+                Student.withPassword("S1", "alice", "secret"),
+                Lecturer.withPasswordHash("L1", "bob", "pbkdf2-sha256$1$AAAA$AAAA")));
+
+        List<User> users = RosterCache.read(file, digest);
+        assertEquals(2, users.size());
+        assertInstanceOf(Student.class, users.get(0));
+        assertEquals("S1", users.get(0).getUserId());
+        assertEquals("alice", users.get(0).getUsername());
+        assertTrue(users.get(0).validatePassword("secret"));
+        assertFalse(users.get(0).validatePassword("guess"));
+        assertInstanceOf(Lecturer.class, users.get(1));
+        assertEquals("pbkdf2-sha256$1$AAAA$AAAA", users.get(1).getPasswordHash());
+    }
+
+    @Test
+    void changedSourceOrDamagedCacheIsIgnored() throws IOException {
+        Path file = dir.resolve("roster.cache");
+        assertNull(RosterCache.read(file, digest("a")));
+
+        RosterCache.write(file, digest("a"), List.of(Student.withPasswordHash("S1", "alice", "x")));
+        assertNull(RosterCache.read(file, digest("b")));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 6] ^= 1;
+        Files.write(file, bytes);
+        assertNull(RosterCache.read(file, digest("a")));
+
+        Files.write(file, new byte[] { 1, 2, 3 });
+        assertNull(RosterCache.read(file, digest("a")));
+    }
+
+    private static byte[] digest(String source) throws IOException {
+        return RosterCache.digest(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+    }
+}
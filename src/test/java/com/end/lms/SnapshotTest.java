@@ -0,0 +1,133 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshotRoundTripsExamsSubmissionsAndLogs() throws IOException {
+        Map<String, Exam> exams = new HashMap<>();
+        exams.put("SN1", exam("SN1"));
+        SubmissionStore submissions = new SubmissionStore(examId -> exams.get(examId).getAnswerKey());
+        submissions.put("SN1-S1", "SN1", answers("SN1-S1", "SN1", "A", "C"));
+        submissions.put("SN1-S2", "SN1", answers("SN1-S2", "SN1", "B"));
+        submissions.get("SN1-S1", "SN1").forEach(answer -> answer.setTotalScore(8));
+        KeyLogRepository keyLogs = new KeyLogRepository();
+        keyLogs.put("SN1-S1", "SN1", List.of(new KeyLogEntry("COPY", 10), new KeyLogEntry("PASTE", 20)));
+
+        Path file = dir.resolve("snapshot.bin");
+        Snapshot.capture(1234, exams, submissions, keyLogs).writeTo(file);
+        Snapshot loaded = Snapshot.load(file);
+
+        assertEquals(1234, loaded.getWalPosition());
+        Exam exam = loaded.getExams().get("SN1");
+        assertEquals("Snapshot SN1", exam.getTitle());
+        assertEquals(2, exam.getQuestions().size());
+        assertEquals("C", exam.getQuestions().get(1).getCorrectAnswer());
+
+        List<Answer> first = loaded.getSubmissions().get("SN1-S1", "SN1");
+        assertEquals(List.of("A", "C"), first.stream().map(Answer::getContent).toList());
+        assertTrue(first.get(0).isGraded());
+        assertEquals(8, first.get(0).getTotalScore());
+        assertFalse(loaded.getSubmissions().get("SN1-S2", "SN1").get(0).isGraded());
+
+        List<KeyLogEntry> logs = loaded.getKeyLogs().get("SN1-S1", "SN1");
+        assertEquals(List.of("COPY", "PASTE"), logs.stream().map(KeyLogEntry::getAction).toList());
+        assertEquals(20, logs.get(1).getTimestampMillis());
+    }
+
+    @Test
+    void logTailAfterTheSnapshotIsReplayedOnTop() throws IOException {
+        Map<String, Exam> exams = new HashMap<>();
+        exams.put("SN2", exam("SN2"));
+        SubmissionStore submissions = new SubmissionStore(examId -> exams.get(examId).getAnswerKey());
+        Path walDir = dir.resolve("wal");
+        Path file = dir.resolve("snapshot.bin");
+
+        try (WriteAheadLog log = WriteAheadLog.open(walDir, new Store(submissions))) {
+            List<Answer> answers = answers("SN2-S1", "SN2", "A", "B");
+            log.appendSubmission("SN2-S1", "SN2", answers, List.of()).join();
+            submissions.put("SN2-S1", "SN2", answers);
+
+            long position = log.position();
+            Snapshot.capture(position, exams, submissions, new KeyLogRepository()).writeTo(file);
+            log.rollover().join();
+            log.deleteSegmentsBefore(position);
+
+            log.appendSubmission("SN2-S2", "SN2", answers("SN2-S2", "SN2", "D"), List.of()).join();
+            log.appendScore("SN2-S1", "SN2", 5).join();
+        }
+        assertFalse(Files.exists(WriteAheadLog.segmentFile(walDir, 0)));
+
+        Snapshot loaded = Snapshot.load(file);
+        SubmissionStore restored = loaded.getSubmissions();
+        assertNull(restored.get("SN2-S2", "SN2"));
+        Store store = new Store(restored);
+        try (WriteAheadLog log = WriteAheadLog.open(walDir, loaded.getWalPosition(), store)) {
+            assertEquals(2, store.applied);
+        }
+        assertEquals("D", restored.get("SN2-S2", "SN2").get(0).getContent());
+        assertEquals(5, restored.get("SN2-S1", "SN2").get(0).getTotalScore());
+        assertEquals(2, restored.get("SN2-S1", "SN2").size());
+    }
+
+    private static Exam exam(String examId) {
+        Exam exam = new Exam(examId, "Snapshot " + examId);
+        String[] correct = { "A", "C" };
+        for (int q = 0; q < correct.length; q++) {
+            Question question = new Question("Q" + q, "Question " + q, 5, "MULTIPLE_CHOICE");
+            for (String choice : new String[] { "A", "B", "C", "D" }) {
+                question.addOption(choice);
+            }
+            question.setCorrectAnswer(correct[q]);
+            exam.addQuestion(question);
+        }
+        exam.publish();
+        return exam;
+    }
+
+    private static List<Answer> answers(String studentId, String examId, String... contents) {
+        List<Answer> answers = new ArrayList<>();
+        for (int q = 0; q < contents.length; q++) {
+            answers.add(new Answer(studentId, examId, "Q" + q, contents[q]));
+        }
+        return answers;
+    }
+
+    private static class Store implements WriteAheadLog.Replayer {
+        private final SubmissionStore submissions;
+        int applied;
+
+        Store(SubmissionStore submissions) {
+            this.submissions = submissions;
+        }
+
+        @Override
+        public void onSubmission(String studentId, String examId, List<Answer> answers, List<KeyLogEntry> logs) {
+            submissions.put(studentId, examId, answers);
+            applied++;
+        }
+
+        @Override
+        public void onScore(String studentId, String examId, float score) {
+            submissions.get(studentId, examId).forEach(answer -> answer.setTotalScore(score));
+            applied++;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.end.lms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsReplayInAppendOrder() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, new Recorder())) {
+            log.appendSubmission("S1", "E1", List.of(new Answer("S1", "E1", "Q1", "A"),
+                    new Answer("S1", "E1", "Q2", "C")), List.of(new KeyLogEntry("COPY", 42))).join();
+            log.appendScore("S1", "E1", 7.5f).join();
+        }
+
+        Recorder recorder = new Recorder();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, recorder)) {
+            assertEquals(List.of("submit S1 E1 Q1=A Q2=C COPY@42", "score S1 E1 7.5"), recorder.records);
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedBeforeNewAppends() throws IOException {
+        long validEnd;
+        try (WriteAheadLog log = WriteAheadLog.open(dir, new Recorder())) {
+            log.appendScore("S1", "E1", 1).join();
+            log.appendScore("S2", "E1", 2).join();
+            validEnd = log.position();
+        }
+        Path segment = WriteAheadLog.segmentFile(dir, 0);
+        Files.write(segment, new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        Recorder recorder = new Recorder();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, recorder)) {
+            assertEquals(List.of("score S1 E1 1.0", "score S2 E1 2.0"), recorder.records);
+            assertEquals(validEnd, log.position());
+            assertEquals(validEnd, Files.size(segment));
+            log.appendScore("S3", "E1", 3).join();
+        }
+
+        recorder = new Recorder();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, recorder)) {
+            assertEquals(List.of("score S1 E1 1.0", "score S2 E1 2.0", "score S3 E1 3.0"), recorder.records);
+        }
+    }
+
+    @Test
+    void corruptRecordEndsReplay() throws IOException {
+        long firstEnd;
+        try (WriteAheadLog log = WriteAheadLog.open(dir, new Recorder())) {
+            log.appendScore("S1", "E1", 1).join();
+            firstEnd = log.position();
+            log.appendScore("S2", "E1", 2).join();
+            log.appendScore("S3", "E1", 3).join();
+        }
+        Path segment = WriteAheadLog.segmentFile(dir, 0);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[(int) firstEnd + 12] ^= 0x55;
+        Files.write(segment, bytes);
+
+        Recorder recorder = new Recorder();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, recorder)) {
+            assertEquals(List.of("score S1 E1 1.0"), recorder.records);
+            assertEquals(firstEnd, log.position());
+        }
+    }
+
+    @Test
+    void replayStartsFromTheGivenPosition() throws IOException {
+        long position;
+        try (WriteAheadLog log = WriteAheadLog.open(dir, new Recorder())) {
+            log.appendScore("S1", "E1", 1).join();
+            log.appendScore("S2", "E1", 2).join();
+            position = log.position();
+            log.appendScore("S3", "E1", 3).join();
+        }
+
+        Recorder recorder = new Recorder();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, position, recorder)) {
+            assertEquals(List.of("score S3 E1 3.0"), recorder.records);
+        }
+    }
+
+    private static class Recorder implements WriteAheadLog.Replayer {
+        final List<String> records = new ArrayList<>();
+
+        @Override
+        public void onSubmission(String studentId, String examId, List<Answer> answers, List<KeyLogEntry> logs) {
+            StringBuilder record = new StringBuilder("submit " + studentId + " " + examId);
+            for (Answer answer : answers) {
+                record.append(' ').append(answer.getQuestionId()).append('=').append(answer.getContent());
+            }
+            for (KeyLogEntry log : logs) {
+                record.append(' ').append(log.getAction()).append('@').append(log.getTimestampMillis());
+            }
+            records.add(record.toString());
+        }
+
+        @Override
+        public void onScore(String studentId, String examId, float score) {
+            records.add("score " + studentId + " " + examId + " " + score);
+        }
+    }
+}